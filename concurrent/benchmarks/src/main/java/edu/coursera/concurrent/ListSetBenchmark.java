@@ -0,0 +1,62 @@
+package edu.coursera.concurrent;
+
+import org.openjdk.jmh.annotations.Param;
+
+import edu.coursera.concurrent.CoarseLists.CoarseList;
+import edu.coursera.concurrent.CoarseLists.RWCoarseList;
+import edu.coursera.concurrent.CoarseLists.StampedCoarseList;
+import edu.coursera.concurrent.FineGrainedLists.HandOverHandList;
+import edu.coursera.concurrent.FineGrainedLists.LazyList;
+import edu.coursera.concurrent.FineGrainedLists.OptimisticList;
+
+/**
+ * JMH benchmark for every concurrent list under the mixed workload of
+ * ListSetWorkload. The linked lists take time linear in their length, so
+ * the values are kept to small ranges; SkipListBenchmark runs the larger
+ * ones.
+ */
+public class ListSetBenchmark extends ListSetWorkload {
+    /**
+     * The list implementation.
+     */
+    @Param({"SyncList", "CoarseList", "RWCoarseList", "StampedCoarseList",
+        "HandOverHandList", "OptimisticList", "LazyList", "LockFreeList",
+        "SkipList"})
+    private String list;
+    /**
+     * Values are drawn from 0 to range, and the list starts about half full.
+     */
+    @Param({"2500"})
+    private int range;
+
+    @Override
+    protected ListSet create() {
+        switch (list) {
+            case "SyncList":
+                return new SyncList();
+            case "CoarseList":
+                return new CoarseList();
+            case "RWCoarseList":
+                return new RWCoarseList();
+            case "StampedCoarseList":
+                return new StampedCoarseList();
+            case "HandOverHandList":
+                return new HandOverHandList();
+            case "OptimisticList":
+                return new OptimisticList();
+            case "LazyList":
+                return new LazyList();
+            case "LockFreeList":
+                return new LockFreeList();
+            case "SkipList":
+                return new SkipList();
+            default:
+                throw new IllegalArgumentException("Unknown list " + list);
+        }
+    }
+
+    @Override
+    protected int range() {
+        return range;
+    }
+}
@@ -0,0 +1,174 @@
+package edu.coursera.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The mixed workload shared by the list benchmarks, in which every thread
+ * interleaves contains with adds and removes in a given proportion on one
+ * shared list. Each invocation runs a fixed total number of operations
+ * split evenly among the threads of a dedicated pool, so the throughput of
+ * different thread counts can be compared directly. Subclasses choose the
+ * lists and the ranges of values they are run with.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public abstract class ListSetWorkload {
+    /**
+     * Total number of operations per invocation, over all threads.
+     */
+    static final int OPS_PER_INVOCATION = 100_000;
+
+    /**
+     * Percentage of operations that are contains, the rest being adds and
+     * removes in equal proportion.
+     */
+    @Param({"90", "99"})
+    private int readPercent;
+    /**
+     * Number of threads.
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    /**
+     * The list shared by the threads.
+     */
+    private ListSet set;
+    /**
+     * The values operated on by each thread.
+     */
+    private Integer[][] nums;
+    /**
+     * The operations of each thread: 0 for contains, 1 for add, 2 for remove.
+     */
+    private int[][] ops;
+    /**
+     * Pool running the threads.
+     */
+    private ExecutorService pool;
+
+    /**
+     * Creates an empty list of the benchmarked implementation.
+     *
+     * @return The list
+     */
+    protected abstract ListSet create();
+
+    /**
+     * Values are drawn from 0 to range(), and the list starts about half
+     * full.
+     *
+     * @return The range of the values
+     */
+    protected abstract int range();
+
+    /**
+     * Draws the operations of each thread and creates the pool.
+     */
+    @Setup
+    public void setup() {
+        final int opsPerThread = OPS_PER_INVOCATION / threads;
+        nums = new Integer[threads][opsPerThread];
+        ops = new int[threads][opsPerThread];
+        for (int t = 0; t < threads; t++) {
+            final Random rand = new Random(t + 1);
+            for (int i = 0; i < opsPerThread; i++) {
+                nums[t][i] = rand.nextInt(range());
+                ops[t][i] = rand.nextInt(100) < readPercent ? 0 : 1 + rand.nextInt(2);
+            }
+        }
+        pool = Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Creates a list filled with about half of the values, so adds and
+     * removes succeed about as often as they fail.
+     */
+    @Setup(Level.Iteration)
+    public void fill() {
+        set = create();
+        final Random fill = new Random(0);
+        for (int i = 0; i < range() / 2; i++) {
+            set.add(fill.nextInt(range()));
+        }
+    }
+
+    /**
+     * Shuts down the pool.
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Runs the operations of all threads on the shared list.
+     *
+     * @return The number of operations that returned true
+     * @throws InterruptedException If interrupted while waiting for the
+     *                              threads
+     * @throws ExecutionException   If an operation failed
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS_PER_INVOCATION)
+    public int mixed() throws InterruptedException, ExecutionException {
+        final List<Callable<Integer>> tasks = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            final Integer[] myNums = nums[t];
+            final int[] myOps = ops[t];
+            tasks.add(() -> {
+                int successes = 0;
+                for (int i = 0; i < myNums.length; i++) {
+                    final boolean success;
+                    switch (myOps[i]) {
+                        case 0:
+                            success = set.contains(myNums[i]);
+                            break;
+                        case 1:
+                            success = set.add(myNums[i]);
+                            break;
+                        default:
+                            success = set.remove(myNums[i]);
+                            break;
+                    }
+                    if (success) {
+                        successes++;
+                    }
+                }
+                return successes;
+            });
+        }
+        int successes = 0;
+        for (Future<Integer> result : pool.invokeAll(tasks)) {
+            successes += result.get();
+        }
+        return successes;
+    }
+}
@@ -0,0 +1,26 @@
+package edu.coursera.concurrent;
+
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * JMH benchmark for SkipList under the mixed workload of ListSetWorkload,
+ * from the range of ListSetBenchmark up to sets of hundreds of thousands
+ * of values, too large for the linked lists.
+ */
+public class SkipListBenchmark extends ListSetWorkload {
+    /**
+     * Values are drawn from 0 to range, and the set starts about half full.
+     */
+    @Param({"2500", "100000", "1000000"})
+    private int range;
+
+    @Override
+    protected ListSet create() {
+        return new SkipList();
+    }
+
+    @Override
+    protected int range() {
+        return range;
+    }
+}
@@ -4,9 +4,10 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 /**
- * Wrapper class for two lock-based concurrent list implementations.
+ * Wrapper class for three lock-based concurrent list implementations.
  */
 public final class CoarseLists {
     /**
@@ -225,4 +226,118 @@ public final class CoarseLists {
             }
         }
     }
+
+    /**
+     * An implementation of the ListSet interface that uses a StampedLock to
+     * protect against concurrent accesses. Like RWCoarseList, add and remove
+     * take the lock for writing, but contains first searches the list
+     * without locking, under an optimistic read, and only takes the lock for
+     * reading if a writer held it in the meantime. An uncontended contains
+     * therefore writes no shared state at all.
+     * <p>
+     * An optimistic search may see the list in the middle of an update,
+     * including the next field of a new entry before it is set. It may only
+     * step forward to larger values, so it ends, and it stops at a null
+     * link; either way its result is discarded unless the stamp validates.
+     */
+    public static final class StampedCoarseList extends ListSet {
+        /**
+         * Protects this list, exclusive to add and remove.
+         */
+        private final StampedLock lock = new StampedLock();
+
+        /**
+         * Default constructor.
+         */
+        public StampedCoarseList() {
+            super();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean add(final Integer object) {
+            final long stamp = lock.writeLock();
+            try {
+                Entry pred = this.head;
+                Entry curr = pred.next;
+
+                while (curr.object.compareTo(object) < 0) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                if (object.equals(curr.object)) {
+                    return false;
+                } else {
+                    final Entry entry = new Entry(object);
+                    entry.next = curr;
+                    pred.next = entry;
+                    return true;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean remove(final Integer object) {
+            final long stamp = lock.writeLock();
+            try {
+                Entry pred = this.head;
+                Entry curr = pred.next;
+
+                while (curr.object.compareTo(object) < 0) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                if (object.equals(curr.object)) {
+                    pred.next = curr.next;
+                    return true;
+                } else {
+                    return false;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean contains(final Integer object) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                Entry curr = this.head.next;
+                while (curr != null && curr.object.compareTo(object) < 0) {
+                    curr = curr.next;
+                }
+                final boolean found = curr != null
+                    && object.equals(curr.object);
+                if (lock.validate(stamp)) {
+                    return found;
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                Entry pred = this.head;
+                Entry curr = pred.next;
+
+                while (curr.object.compareTo(object) < 0) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+                return object.equals(curr.object);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
 }
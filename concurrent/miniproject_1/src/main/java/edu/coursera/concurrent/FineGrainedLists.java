@@ -0,0 +1,410 @@
+package edu.coursera.concurrent;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Wrapper class for three concurrent list implementations that lock
+ * individual nodes rather than the whole list, in decreasing order of
+ * locking: hand-over-hand, optimistic and lazy.
+ */
+public final class FineGrainedLists {
+    /**
+     * A single element of a fine-grained list, with its own lock.
+     */
+    static final class Node {
+        /**
+         * The value stored in this node.
+         */
+        final Integer object;
+        /**
+         * The next node of the list, only written while holding the locks
+         * of this node and of the next node.
+         */
+        volatile Node next;
+        /**
+         * Set once this node is logically removed from the list, before it
+         * is unlinked. Only used by LazyList.
+         */
+        volatile boolean marked;
+        /**
+         * Protects this node.
+         */
+        final Lock lock = new ReentrantLock();
+
+        /**
+         * Constructor.
+         *
+         * @param setObject Value to store in this node
+         * @param setNext   Next node of the list
+         */
+        Node(final Integer setObject, final Node setNext) {
+            this.object = setObject;
+            this.next = setNext;
+        }
+    }
+
+    /**
+     * The common base of the fine-grained lists. They are made of their own
+     * lockable nodes rather than of Entry objects, so ListSet.head is null
+     * and getHead() returns a copy.
+     */
+    abstract static class NodeList extends ListSet {
+        /**
+         * Starting node of this list, followed by the nodes holding the
+         * values and a node holding Integer.MAX_VALUE.
+         */
+        protected final Node first;
+
+        /**
+         * Default constructor.
+         */
+        NodeList() {
+            super(null);
+            this.first = new Node(Integer.MIN_VALUE,
+                    new Node(Integer.MAX_VALUE, null));
+        }
+
+        /**
+         * Copies the values currently in the list into a chain of entries.
+         * The copy is exact when no other thread is modifying the list.
+         *
+         * @return The head of a copy of this list.
+         */
+        @Override
+        public Entry getHead() {
+            final Entry copy = new Entry(first.object);
+            Entry last = copy;
+            Node curr = first.next;
+            while (curr != null) {
+                if (!curr.marked) {
+                    last.next = new Entry(curr.object);
+                    last = last.next;
+                }
+                curr = curr.next;
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * An implementation of the ListSet interface that locks nodes hand over
+     * hand: a thread holds the locks of two adjacent nodes at a time and
+     * locks the next node before releasing the first of them, so threads
+     * working on different parts of the list do not block each other, but
+     * none can overtake another.
+     */
+    public static final class HandOverHandList extends NodeList {
+        /**
+         * Default constructor.
+         */
+        public HandOverHandList() {
+            super();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean add(final Integer object) {
+            Node pred = first;
+            pred.lock.lock();
+            Node curr = pred.next;
+            curr.lock.lock();
+            try {
+                while (curr.object.compareTo(object) < 0) {
+                    pred.lock.unlock();
+                    pred = curr;
+                    curr = curr.next;
+                    curr.lock.lock();
+                }
+
+                if (object.equals(curr.object)) {
+                    return false;
+                } else {
+                    pred.next = new Node(object, curr);
+                    return true;
+                }
+            } finally {
+                curr.lock.unlock();
+                pred.lock.unlock();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean remove(final Integer object) {
+            Node pred = first;
+            pred.lock.lock();
+            Node curr = pred.next;
+            curr.lock.lock();
+            try {
+                while (curr.object.compareTo(object) < 0) {
+                    pred.lock.unlock();
+                    pred = curr;
+                    curr = curr.next;
+                    curr.lock.lock();
+                }
+
+                if (object.equals(curr.object)) {
+                    pred.next = curr.next;
+                    return true;
+                } else {
+                    return false;
+                }
+            } finally {
+                curr.lock.unlock();
+                pred.lock.unlock();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean contains(final Integer object) {
+            Node pred = first;
+            pred.lock.lock();
+            Node curr = pred.next;
+            curr.lock.lock();
+            try {
+                while (curr.object.compareTo(object) < 0) {
+                    pred.lock.unlock();
+                    pred = curr;
+                    curr = curr.next;
+                    curr.lock.lock();
+                }
+                return object.equals(curr.object);
+            } finally {
+                curr.lock.unlock();
+                pred.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * An implementation of the ListSet interface that searches without
+     * locking, then locks the two nodes around the target and validates
+     * that they are still in the list and still adjacent, by searching for
+     * them again from the start of the list, retrying if not.
+     */
+    public static final class OptimisticList extends NodeList {
+        /**
+         * Default constructor.
+         */
+        public OptimisticList() {
+            super();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean add(final Integer object) {
+            while (true) {
+                Node pred = first;
+                Node curr = pred.next;
+                while (curr.object.compareTo(object) < 0) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                pred.lock.lock();
+                curr.lock.lock();
+                try {
+                    if (validate(pred, curr)) {
+                        if (object.equals(curr.object)) {
+                            return false;
+                        } else {
+                            pred.next = new Node(object, curr);
+                            return true;
+                        }
+                    }
+                } finally {
+                    curr.lock.unlock();
+                    pred.lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean remove(final Integer object) {
+            while (true) {
+                Node pred = first;
+                Node curr = pred.next;
+                while (curr.object.compareTo(object) < 0) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                pred.lock.lock();
+                curr.lock.lock();
+                try {
+                    if (validate(pred, curr)) {
+                        if (object.equals(curr.object)) {
+                            pred.next = curr.next;
+                            return true;
+                        } else {
+                            return false;
+                        }
+                    }
+                } finally {
+                    curr.lock.unlock();
+                    pred.lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean contains(final Integer object) {
+            while (true) {
+                Node pred = first;
+                Node curr = pred.next;
+                while (curr.object.compareTo(object) < 0) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                pred.lock.lock();
+                curr.lock.lock();
+                try {
+                    if (validate(pred, curr)) {
+                        return object.equals(curr.object);
+                    }
+                } finally {
+                    curr.lock.unlock();
+                    pred.lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * Checks, with pred and curr locked, that pred is still reachable
+         * from the start of the list and still followed by curr.
+         *
+         * @param pred The node before curr
+         * @param curr The node after pred
+         * @return true if pred and curr are adjacent nodes of the list
+         */
+        private boolean validate(final Node pred, final Node curr) {
+            Node node = first;
+            while (node.object.compareTo(pred.object) <= 0) {
+                if (node == pred) {
+                    return pred.next == curr;
+                }
+                node = node.next;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * An implementation of the ListSet interface that marks a node as
+     * removed before unlinking it, so that the two nodes around the target
+     * can be validated without searching the list again, and contains() can
+     * search without locking at all.
+     */
+    public static final class LazyList extends NodeList {
+        /**
+         * Default constructor.
+         */
+        public LazyList() {
+            super();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean add(final Integer object) {
+            while (true) {
+                Node pred = first;
+                Node curr = pred.next;
+                while (curr.object.compareTo(object) < 0) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                pred.lock.lock();
+                curr.lock.lock();
+                try {
+                    if (validate(pred, curr)) {
+                        if (object.equals(curr.object)) {
+                            return false;
+                        } else {
+                            pred.next = new Node(object, curr);
+                            return true;
+                        }
+                    }
+                } finally {
+                    curr.lock.unlock();
+                    pred.lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean remove(final Integer object) {
+            while (true) {
+                Node pred = first;
+                Node curr = pred.next;
+                while (curr.object.compareTo(object) < 0) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                pred.lock.lock();
+                curr.lock.lock();
+                try {
+                    if (validate(pred, curr)) {
+                        if (object.equals(curr.object)) {
+                            curr.marked = true;
+                            pred.next = curr.next;
+                            return true;
+                        } else {
+                            return false;
+                        }
+                    }
+                } finally {
+                    curr.lock.unlock();
+                    pred.lock.unlock();
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean contains(final Integer object) {
+            Node curr = first;
+            while (curr.object.compareTo(object) < 0) {
+                curr = curr.next;
+            }
+            return object.equals(curr.object) && !curr.marked;
+        }
+
+        /**
+         * Checks, with pred and curr locked, that neither has been removed
+         * and that pred is still followed by curr.
+         *
+         * @param pred The node before curr
+         * @param curr The node after pred
+         * @return true if pred and curr are adjacent nodes of the list
+         */
+        private static boolean validate(final Node pred, final Node curr) {
+            return !pred.marked && !curr.marked && pred.next == curr;
+        }
+    }
+}
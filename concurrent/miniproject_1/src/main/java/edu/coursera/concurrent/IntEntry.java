@@ -0,0 +1,26 @@
+package edu.coursera.concurrent;
+
+/**
+ * A single element in any of the int-specialized list implementations,
+ * storing its value inline rather than as a reference to an Integer.
+ */
+public final class IntEntry {
+    /**
+     * The value stored in this list entry.
+     */
+    public final int key;
+
+    /**
+     * The next element in this singly linked list.
+     */
+    public IntEntry next;
+
+    /**
+     * The general constructor used when creating a new list entry.
+     *
+     * @param setKey Value to store in this item
+     */
+    IntEntry(final int setKey) {
+        this.key = setKey;
+    }
+}
@@ -0,0 +1,106 @@
+package edu.coursera.concurrent;
+
+/**
+ * The abstract interface implemented by the int-specialized List versions.
+ * They maintain a sorted list of IntEntry items, which store their values
+ * inline, so that a list element is a single object and comparing against
+ * it reads no other object. The Integer methods of ListSet unbox their
+ * argument once and call the int overloads, so these lists can be used
+ * wherever a ListSet is expected. They are not made of Entry objects, so
+ * ListSet.head is null and getHead() returns a copy.
+ */
+public abstract class IntListSet extends ListSet {
+    /**
+     * Starting entry of this concurrent list.
+     */
+    protected final IntEntry intHead;
+
+    /**
+     * Default constructor.
+     */
+    public IntListSet() {
+        super(null);
+        this.intHead = new IntEntry(Integer.MIN_VALUE);
+        this.intHead.next = new IntEntry(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Getter for the head of the list.
+     *
+     * @return The head of this list.
+     */
+    public IntEntry getIntHead() {
+        return intHead;
+    }
+
+    /**
+     * Copies the values currently in the list into a chain of entries. The
+     * copy is exact when no other thread is modifying the list.
+     *
+     * @return The head of a copy of this list.
+     */
+    @Override
+    public Entry getHead() {
+        final Entry copy = new Entry(intHead.key);
+        Entry last = copy;
+        IntEntry curr = intHead.next;
+        while (curr != null) {
+            last.next = new Entry(curr.key);
+            last = last.next;
+            curr = curr.next;
+        }
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    final boolean add(final Integer o) {
+        return add(o.intValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    final boolean remove(final Integer o) {
+        return remove(o.intValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    final boolean contains(final Integer o) {
+        return contains(o.intValue());
+    }
+
+    /**
+     * Add an integer value to this sorted list, ensuring uniqueness. This
+     * method must use IntListSet.intHead as the head of the list.
+     *
+     * @param key The integer to add.
+     * @return false if this value already exists in the list, true otherwise
+     */
+    abstract boolean add(int key);
+
+    /**
+     * Remove an integer value from this list if it exists. This method must
+     * use IntListSet.intHead as the head of the list.
+     *
+     * @param key The integer to remove.
+     * @return true if this value is found in the list and successfully
+     *         removed, false otherwise
+     */
+    abstract boolean remove(int key);
+
+    /**
+     * Check if this list contains the provided value. This method must use
+     * IntListSet.intHead as the head of the list.
+     *
+     * @param key The integer to check for.
+     * @return true if this list contains the target value, false otherwise.
+     */
+    abstract boolean contains(int key);
+}
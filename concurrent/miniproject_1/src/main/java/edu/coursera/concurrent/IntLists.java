@@ -0,0 +1,203 @@
+package edu.coursera.concurrent;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Wrapper class for int-specialized versions of the two lock-based concurrent
+ * list implementations of CoarseLists.
+ */
+public final class IntLists {
+    /**
+     * An int-specialized CoarseList, using a Java lock to protect against
+     * concurrent accesses.
+     */
+    public static final class IntCoarseList extends IntListSet {
+        /**
+         * Protects this list.
+         */
+        private final Lock lock = new ReentrantLock();
+
+        /**
+         * Default constructor.
+         */
+        public IntCoarseList() {
+            super();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean add(final int key) {
+            try {
+                lock.lock();
+
+                IntEntry pred = this.intHead;
+                IntEntry curr = pred.next;
+
+                while (curr.key < key) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                if (key == curr.key) {
+                    return false;
+                } else {
+                    final IntEntry entry = new IntEntry(key);
+                    entry.next = curr;
+                    pred.next = entry;
+                    return true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean remove(final int key) {
+            try {
+                lock.lock();
+
+                IntEntry pred = this.intHead;
+                IntEntry curr = pred.next;
+
+                while (curr.key < key) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                if (key == curr.key) {
+                    pred.next = curr.next;
+                    return true;
+                } else {
+                    return false;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean contains(final int key) {
+            try {
+                lock.lock();
+
+                IntEntry pred = this.intHead;
+                IntEntry curr = pred.next;
+
+                while (curr.key < key) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+                return key == curr.key;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * An int-specialized RWCoarseList, using a Java read-write lock to protect
+     * against concurrent accesses.
+     */
+    public static final class IntRWCoarseList extends IntListSet {
+        /**
+         * Protects this list, shared by contains() and exclusive to add()
+         * and remove().
+         */
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /**
+         * Default constructor.
+         */
+        public IntRWCoarseList() {
+            super();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean add(final int key) {
+            try {
+                lock.writeLock().lock();
+
+                IntEntry pred = this.intHead;
+                IntEntry curr = pred.next;
+
+                while (curr.key < key) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                if (key == curr.key) {
+                    return false;
+                } else {
+                    final IntEntry entry = new IntEntry(key);
+                    entry.next = curr;
+                    pred.next = entry;
+                    return true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean remove(final int key) {
+            try {
+                lock.writeLock().lock();
+
+                IntEntry pred = this.intHead;
+                IntEntry curr = pred.next;
+
+                while (curr.key < key) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+
+                if (key == curr.key) {
+                    pred.next = curr.next;
+                    return true;
+                } else {
+                    return false;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        boolean contains(final int key) {
+            try {
+                lock.readLock().lock();
+
+                IntEntry pred = this.intHead;
+                IntEntry curr = pred.next;
+
+                while (curr.key < key) {
+                    pred = curr;
+                    curr = curr.next;
+                }
+                return key == curr.key;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
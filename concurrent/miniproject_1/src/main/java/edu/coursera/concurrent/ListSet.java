@@ -9,7 +9,8 @@ package edu.coursera.concurrent;
  */
 public abstract class ListSet {
     /**
-     * Starting entry of this concurrent list.
+     * Starting entry of this concurrent list, null for a list that is not
+     * made of Entry objects.
      */
     protected final Entry head;
 
@@ -21,6 +22,17 @@ public abstract class ListSet {
         this.head.next = new Entry(Integer.MAX_VALUE);
     }
 
+    /**
+     * Constructor for a list with the given starting entry. A list that is
+     * not made of Entry objects passes null, so that no unused entries are
+     * allocated, and overrides getHead() to return a copy of its values.
+     *
+     * @param setHead Starting entry of this list, or null
+     */
+    protected ListSet(final Entry setHead) {
+        this.head = setHead;
+    }
+
     /**
      * Getter for the head of the list.
      *
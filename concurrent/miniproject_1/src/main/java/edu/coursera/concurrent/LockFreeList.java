@@ -0,0 +1,222 @@
+package edu.coursera.concurrent;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Class LockFreeList implements a thread-safe sorted list data structure that
+ * supports contains(), add() and remove() methods without locks, following
+ * Harris and Michael.
+ * <p>
+ * A node is logically deleted by swapping its next link for a marker node
+ * pointing to the same successor, as java.util.concurrent.ConcurrentSkipListMap
+ * does, which plays the role of the mark bit of an AtomicMarkableReference
+ * without the extra indirection on every link: once a node's next link holds
+ * a marker, a compare-and-set of that link expecting a regular node fails.
+ * remove() marks the node, which is the point at which the value leaves the
+ * set, and then tries once to unlink it. Any add() or remove() that later
+ * passes over a marked node helps by unlinking it before going on, so no
+ * thread ever waits for another. contains() never writes: it walks the list,
+ * stepping over markers, and only checks the mark of the node it stops at.
+ * <p>
+ * The list is made of its own nodes rather than of Entry objects, so
+ * ListSet.head is null and getHead() returns a copy.
+ */
+public final class LockFreeList extends ListSet {
+    /**
+     * Updater for the next link of a node.
+     */
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+        AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+    /**
+     * Starting node of this list, followed by the nodes holding the values
+     * and a node holding Integer.MAX_VALUE.
+     */
+    private final Node first;
+
+    /**
+     * Constructor.
+     */
+    public LockFreeList() {
+        super(null);
+        this.first = new Node(Integer.MIN_VALUE,
+                new Node(Integer.MAX_VALUE, null));
+    }
+
+    /**
+     * Copies the values currently in the list into a chain of entries. The
+     * copy is exact when no other thread is modifying the list, and
+     * otherwise holds every value that stays in the list during the copy.
+     *
+     * @return The head of a copy of this list.
+     */
+    @Override
+    public Entry getHead() {
+        final Entry copy = new Entry(first.object);
+        Entry last = copy;
+        Node curr = first.next;
+        while (curr != null) {
+            if (!curr.isMarker() && !curr.isMarked()) {
+                last.next = new Entry(curr.object);
+                last = last.next;
+            }
+            curr = curr.next;
+        }
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean contains(final Integer object) {
+        Node curr = first;
+        while (curr.object.compareTo(object) < 0) {
+            curr = curr.next;
+            if (curr.isMarker()) {
+                curr = curr.next;
+            }
+        }
+        return object.equals(curr.object) && !curr.isMarked();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean add(final Integer object) {
+        while (true) {
+            final Window window = find(object);
+            if (object.equals(window.curr.object)) {
+                return false;
+            }
+            final Node node = new Node(object, window.curr);
+            if (NEXT.compareAndSet(window.pred, window.curr, node)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean remove(final Integer object) {
+        while (true) {
+            final Window window = find(object);
+            if (!object.equals(window.curr.object)) {
+                return false;
+            }
+            final Node succ = window.curr.next;
+            if (!succ.isMarker() && NEXT.compareAndSet(window.curr, succ,
+                        new Node(null, succ))) {
+                NEXT.compareAndSet(window.pred, window.curr, succ);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Finds the first unmarked node holding a value at least object and its
+     * unmarked predecessor, unlinking the marked nodes found between them.
+     * The search restarts from the start of the list when the predecessor of
+     * a marked node is itself marked or changed by another thread.
+     *
+     * @param object The value to search for.
+     * @return The pair of adjacent nodes around object.
+     */
+    private Window find(final Integer object) {
+        retry:
+        while (true) {
+            Node pred = first;
+            Node curr = pred.next;
+            while (true) {
+                Node succ = curr.next;
+                while (succ != null && succ.isMarker()) {
+                    if (!NEXT.compareAndSet(pred, curr, succ.next)) {
+                        continue retry;
+                    }
+                    curr = succ.next;
+                    succ = curr.next;
+                }
+                if (curr.object.compareTo(object) >= 0) {
+                    return new Window(pred, curr);
+                }
+                pred = curr;
+                curr = succ;
+            }
+        }
+    }
+
+    /**
+     * A single element of a LockFreeList, or a marker following a removed
+     * element.
+     */
+    private static final class Node {
+        /**
+         * The value stored in this node, null for a marker.
+         */
+        private final Integer object;
+        /**
+         * The next node of the list, a marker once this node is removed.
+         * Only written through NEXT after construction.
+         */
+        volatile Node next;
+
+        /**
+         * Constructor.
+         *
+         * @param setObject Value to store in this node, null for a marker
+         * @param setNext   Next node of the list
+         */
+        Node(final Integer setObject, final Node setNext) {
+            this.object = setObject;
+            this.next = setNext;
+        }
+
+        /**
+         * Check if this node is a marker.
+         *
+         * @return true if this node marks its predecessor as removed.
+         */
+        boolean isMarker() {
+            return object == null;
+        }
+
+        /**
+         * Check if this node has been removed.
+         *
+         * @return true if the next node is a marker.
+         */
+        boolean isMarked() {
+            final Node succ = next;
+            return succ != null && succ.isMarker();
+        }
+    }
+
+    /**
+     * Two adjacent nodes, as found by find().
+     */
+    private static final class Window {
+        /**
+         * The last node holding a value below the one searched for.
+         */
+        private final Node pred;
+        /**
+         * The node after pred.
+         */
+        private final Node curr;
+
+        /**
+         * Constructor.
+         *
+         * @param setPred The last node holding a value below the one searched
+         *                for
+         * @param setCurr The node after setPred
+         */
+        Window(final Node setPred, final Node setCurr) {
+            this.pred = setPred;
+            this.curr = setCurr;
+        }
+    }
+}
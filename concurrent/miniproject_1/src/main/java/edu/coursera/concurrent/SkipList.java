@@ -0,0 +1,298 @@
+package edu.coursera.concurrent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class SkipList implements a thread-safe sorted set data structure that
+ * supports contains(), add() and remove() methods in expected O(log n) time,
+ * following the lazy skip list of Herlihy, Lev, Luchangco and Shavit.
+ * <p>
+ * Each node is linked into the lists of levels 0 to a random top level,
+ * chosen so that a node reaches level l with probability 2^-l, and every
+ * search descends from the highest level any node has been linked into,
+ * skipping about half of the remaining nodes at each level. add() and
+ * remove() lock only the predecessors of the node at each of its levels,
+ * validate them and then link or unlink it, so updates to different parts
+ * of the set proceed in parallel. remove() first marks the node, which is
+ * the point at which the value leaves the set, and add() sets fullyLinked
+ * once the node is linked at all its levels, which is the point at which
+ * the value joins it. contains() takes no locks.
+ * <p>
+ * The set is made of its own nodes rather than of Entry objects, so
+ * ListSet.head is null and getHead() returns a copy of level 0.
+ */
+public final class SkipList extends ListSet {
+    /**
+     * Number of levels, enough for sets of up to 2^MAX_LEVEL values.
+     */
+    static final int MAX_LEVEL = 24;
+
+    /**
+     * Updater for the highest level in use.
+     */
+    private static final AtomicIntegerFieldUpdater<SkipList> HIGHEST =
+        AtomicIntegerFieldUpdater.newUpdater(SkipList.class, "highestLevel");
+
+    /**
+     * Starting node of this set, at all levels followed by the nodes holding
+     * the values and a node holding Integer.MAX_VALUE.
+     */
+    private final Node first;
+    /**
+     * The highest level any node has been linked into. add() raises it before
+     * linking a node and it is never lowered, so a search starting there
+     * finds every node; above it, first is followed by the last node.
+     */
+    private volatile int highestLevel;
+
+    /**
+     * Constructor.
+     */
+    public SkipList() {
+        super(null);
+        this.first = new Node(Integer.MIN_VALUE, MAX_LEVEL - 1);
+        final Node last = new Node(Integer.MAX_VALUE, MAX_LEVEL - 1);
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            first.next.set(level, last);
+        }
+        first.fullyLinked = true;
+        last.fullyLinked = true;
+    }
+
+    /**
+     * Copies the values currently in the set into a chain of entries. The
+     * copy is exact when no other thread is modifying the set.
+     *
+     * @return The head of a copy of this set.
+     */
+    @Override
+    public Entry getHead() {
+        final Entry copy = new Entry(first.object);
+        Entry last = copy;
+        Node curr = first.next.get(0);
+        while (curr != null) {
+            if (curr.fullyLinked && !curr.marked) {
+                last.next = new Entry(curr.object);
+                last = last.next;
+            }
+            curr = curr.next.get(0);
+        }
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean contains(final Integer object) {
+        Node pred = first;
+        for (int level = highestLevel; level >= 0; level--) {
+            Node curr = pred.next.get(level);
+            while (curr.object.compareTo(object) < 0) {
+                pred = curr;
+                curr = pred.next.get(level);
+            }
+            if (object.equals(curr.object)) {
+                return curr.fullyLinked && !curr.marked;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean add(final Integer object) {
+        final int topLevel = randomLevel();
+        int highest = highestLevel;
+        while (highest < topLevel && !HIGHEST.compareAndSet(this, highest, topLevel)) {
+            highest = highestLevel;
+        }
+        final Node[] preds = new Node[MAX_LEVEL];
+        final Node[] succs = new Node[MAX_LEVEL];
+        while (true) {
+            final int levelFound = find(object, preds, succs);
+            if (levelFound != -1) {
+                final Node found = succs[levelFound];
+                if (!found.marked) {
+                    while (!found.fullyLinked) {
+                        Thread.yield();
+                    }
+                    return false;
+                }
+                continue;
+            }
+
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    final Node pred = preds[level];
+                    final Node succ = succs[level];
+                    pred.lock.lock();
+                    highestLocked = level;
+                    valid = !pred.marked && !succ.marked
+                        && pred.next.get(level) == succ;
+                }
+                if (!valid) {
+                    continue;
+                }
+
+                final Node node = new Node(object, topLevel);
+                for (int level = 0; level <= topLevel; level++) {
+                    node.next.set(level, succs[level]);
+                }
+                for (int level = 0; level <= topLevel; level++) {
+                    preds[level].next.set(level, node);
+                }
+                node.fullyLinked = true;
+                return true;
+            } finally {
+                for (int level = 0; level <= highestLocked; level++) {
+                    preds[level].lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean remove(final Integer object) {
+        final Node[] preds = new Node[MAX_LEVEL];
+        final Node[] succs = new Node[MAX_LEVEL];
+        Node victim = null;
+        boolean isMarked = false;
+        while (true) {
+            final int levelFound = find(object, preds, succs);
+            if (!isMarked) {
+                if (levelFound == -1) {
+                    return false;
+                }
+                victim = succs[levelFound];
+                if (!victim.fullyLinked || victim.topLevel != levelFound
+                        || victim.marked) {
+                    return false;
+                }
+                victim.lock.lock();
+                if (victim.marked) {
+                    victim.lock.unlock();
+                    return false;
+                }
+                victim.marked = true;
+                isMarked = true;
+            }
+
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                for (int level = 0; valid && level <= victim.topLevel; level++) {
+                    final Node pred = preds[level];
+                    pred.lock.lock();
+                    highestLocked = level;
+                    valid = !pred.marked && pred.next.get(level) == victim;
+                }
+                if (!valid) {
+                    continue;
+                }
+
+                for (int level = victim.topLevel; level >= 0; level--) {
+                    preds[level].next.set(level, victim.next.get(level));
+                }
+                victim.lock.unlock();
+                return true;
+            } finally {
+                for (int level = 0; level <= highestLocked; level++) {
+                    preds[level].lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds, at every level up to the highest level in use, the last node
+     * holding a value below object and the node after it.
+     *
+     * @param object The value to search for.
+     * @param preds  Receives the last node below object at each level
+     * @param succs  Receives the node after preds[level] at each level
+     * @return The highest level at which a node holding object was found,
+     *         -1 if none was.
+     */
+    private int find(final Integer object, final Node[] preds,
+            final Node[] succs) {
+        int levelFound = -1;
+        Node pred = first;
+        for (int level = highestLevel; level >= 0; level--) {
+            Node curr = pred.next.get(level);
+            while (curr.object.compareTo(object) < 0) {
+                pred = curr;
+                curr = pred.next.get(level);
+            }
+            if (levelFound == -1 && object.equals(curr.object)) {
+                levelFound = level;
+            }
+            preds[level] = pred;
+            succs[level] = curr;
+        }
+        return levelFound;
+    }
+
+    /**
+     * Draws the top level of a new node, level l with probability 2^-(l + 1).
+     *
+     * @return A level from 0 to MAX_LEVEL - 1.
+     */
+    private static int randomLevel() {
+        return Integer.numberOfTrailingZeros(
+                ThreadLocalRandom.current().nextInt() | (1 << (MAX_LEVEL - 1)));
+    }
+
+    /**
+     * A single element of a SkipList.
+     */
+    private static final class Node {
+        /**
+         * The value stored in this node.
+         */
+        private final Integer object;
+        /**
+         * The next node at each level from 0 to topLevel.
+         */
+        private final AtomicReferenceArray<Node> next;
+        /**
+         * The highest level this node is linked into.
+         */
+        private final int topLevel;
+        /**
+         * Protects the links of this node.
+         */
+        private final Lock lock = new ReentrantLock();
+        /**
+         * Set once this node is logically removed from the set.
+         */
+        private volatile boolean marked;
+        /**
+         * Set once this node is linked at all its levels.
+         */
+        private volatile boolean fullyLinked;
+
+        /**
+         * Constructor.
+         *
+         * @param setObject   Value to store in this node
+         * @param setTopLevel The highest level to link this node into
+         */
+        Node(final Integer setObject, final int setTopLevel) {
+            this.object = setObject;
+            this.next = new AtomicReferenceArray<>(setTopLevel + 1);
+            this.topLevel = setTopLevel;
+        }
+    }
+}
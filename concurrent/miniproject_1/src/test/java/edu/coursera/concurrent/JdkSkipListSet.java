@@ -0,0 +1,38 @@
+package edu.coursera.concurrent;
+
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * A ListSet backed by java.util.concurrent.ConcurrentSkipListSet, used as a
+ * reference for sets too large for the linked lists.
+ */
+public class JdkSkipListSet extends ListSet {
+    private final ConcurrentSkipListSet<Integer> set = new ConcurrentSkipListSet<>();
+
+    @Override
+    public Entry getHead() {
+        final Entry copy = new Entry(Integer.MIN_VALUE);
+        Entry last = copy;
+        for (Integer object : set) {
+            last.next = new Entry(object);
+            last = last.next;
+        }
+        last.next = new Entry(Integer.MAX_VALUE);
+        return copy;
+    }
+
+    @Override
+    boolean add(final Integer object) {
+        return set.add(object);
+    }
+
+    @Override
+    boolean remove(final Integer object) {
+        return set.remove(object);
+    }
+
+    @Override
+    boolean contains(final Integer object) {
+        return set.contains(object);
+    }
+}
@@ -8,9 +8,16 @@ import java.util.Random;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import edu.coursera.concurrent.CoarseLists.CoarseList;
 import edu.coursera.concurrent.CoarseLists.RWCoarseList;
+import edu.coursera.concurrent.CoarseLists.StampedCoarseList;
+import edu.coursera.concurrent.FineGrainedLists.HandOverHandList;
+import edu.coursera.concurrent.FineGrainedLists.LazyList;
+import edu.coursera.concurrent.FineGrainedLists.OptimisticList;
+import edu.coursera.concurrent.IntLists.IntCoarseList;
+import edu.coursera.concurrent.IntLists.IntRWCoarseList;
 
 public class ListSetTest extends TestCase {
     private final int randNumsLength = 10_000;
@@ -134,6 +141,310 @@ public class ListSetTest extends TestCase {
                 expectedContains, expectedRemove, "Small");
     }
 
+    public void testLockFreeRandomLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength, randNumRange));
+
+        checkSameResultsAsSyncList(() -> new LockFreeList(), "LockFreeList",
+                addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testLockFreeRepeatingLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RepeatingSequenceGenerator(
+                getNCores() * 6 * randNumsLength, randNumsLength);
+        final SequenceGenerator containsSeq = new RepeatingSequenceGenerator(
+                getNCores() * 6 * randNumsLength, randNumsLength);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RepeatingSequenceGenerator(getNCores() * 6 * randNumsLength, randNumsLength));
+
+        checkSameResultsAsSyncList(() -> new LockFreeList(), "LockFreeList",
+                addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testLockFreeConcurrentUpdates() throws InterruptedException {
+        checkConcurrentUpdates(new LockFreeList());
+    }
+
+    public void testLockFreeScaling() throws InterruptedException {
+        reportScaling(() -> new LockFreeList(), "LockFreeList");
+    }
+
+    public void testHandOverHandRandomLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength, randNumRange));
+
+        checkSameResultsAsSyncList(() -> new HandOverHandList(), "HandOverHandList",
+                addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testHandOverHandConcurrentUpdates() throws InterruptedException {
+        checkConcurrentUpdates(new HandOverHandList());
+    }
+
+    public void testHandOverHandScaling() throws InterruptedException {
+        reportScaling(() -> new HandOverHandList(), "HandOverHandList");
+    }
+
+    public void testOptimisticRandomLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength, randNumRange));
+
+        checkSameResultsAsSyncList(() -> new OptimisticList(), "OptimisticList",
+                addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testOptimisticConcurrentUpdates() throws InterruptedException {
+        checkConcurrentUpdates(new OptimisticList());
+    }
+
+    public void testOptimisticScaling() throws InterruptedException {
+        reportScaling(() -> new OptimisticList(), "OptimisticList");
+    }
+
+    public void testLazyRandomLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength, randNumRange));
+
+        checkSameResultsAsSyncList(() -> new LazyList(), "LazyList",
+                addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testLazyConcurrentUpdates() throws InterruptedException {
+        checkConcurrentUpdates(new LazyList());
+    }
+
+    public void testLazyScaling() throws InterruptedException {
+        reportScaling(() -> new LazyList(), "LazyList");
+    }
+
+    public void testSkipListRandomSmall() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength / 2, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength / 2, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength / 2, randNumRange));
+
+        checkSameResultsAsSyncList(() -> new SkipList(), "SkipList",
+                addSeq, containsSeq, removeSeq, "Small");
+    }
+
+    public void testSkipListRandomLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength, randNumRange));
+
+        checkSameResultsAsSyncList(() -> new SkipList(), "SkipList",
+                addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testSkipListRandomHuge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * 2 * randNumsLength, 2 * randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * 2 * randNumsLength, 2 * randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * 2 * randNumsLength, 2 * randNumRange));
+
+        checkSameResultsAsSyncList(() -> new SkipList(), "SkipList",
+                addSeq, containsSeq, removeSeq, "Huge");
+    }
+
+    public void testSkipListVsLockFreeRandomLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength, randNumRange));
+
+        checkSameResults(() -> new SkipList(), "SkipList",
+                () -> new LockFreeList(), "LockFreeList", addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testSkipListVsLazyRandomLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength, randNumRange));
+
+        checkSameResults(() -> new SkipList(), "SkipList",
+                () -> new LazyList(), "LazyList", addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    /**
+     * Hundreds of thousands of values, too many for the linked lists,
+     * against the JDK's lock-free ConcurrentSkipListSet.
+     */
+    public void testSkipListVsJdkRandomVeryLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                500_000, 1_000_000);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                500_000, 1_000_000);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, 500_000, 1_000_000));
+
+        checkSameResults(() -> new SkipList(), "SkipList",
+                () -> new JdkSkipListSet(), "ConcurrentSkipListSet", addSeq,
+                containsSeq, removeSeq, "Very Large");
+    }
+
+    public void testSkipListConcurrentUpdates() throws InterruptedException {
+        checkConcurrentUpdates(new SkipList());
+    }
+
+    public void testIntCoarseListRandomLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength, randNumRange));
+
+        checkSameResults(() -> new IntCoarseList(), "IntCoarseList", () -> new CoarseList(),
+                "CoarseList", addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testIntCoarseListRepeatingLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RepeatingSequenceGenerator(
+                getNCores() * 6 * randNumsLength, randNumsLength);
+        final SequenceGenerator containsSeq = new RepeatingSequenceGenerator(
+                getNCores() * 6 * randNumsLength, randNumsLength);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RepeatingSequenceGenerator(getNCores() * 6 * randNumsLength, randNumsLength));
+
+        checkSameResults(() -> new IntCoarseList(), "IntCoarseList", () -> new CoarseList(),
+                "CoarseList", addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testIntRWCoarseListRandomLarge() throws InterruptedException {
+        final SequenceGenerator addSeq = new RandomSequenceGenerator(0,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator containsSeq = new RandomSequenceGenerator(1,
+                getNCores() * randNumsLength, randNumRange);
+        final SequenceGenerator removeSeq = new ReversedSequenceGenerator(
+                new RandomSequenceGenerator(2, getNCores() * randNumsLength, randNumRange));
+
+        checkSameResults(() -> new IntRWCoarseList(), "IntRWCoarseList", () -> new RWCoarseList(),
+                "RWCoarseList", addSeq, containsSeq, removeSeq, "Large");
+    }
+
+    public void testIntListsConcurrentUpdates() throws InterruptedException {
+        checkConcurrentUpdates(new IntCoarseList());
+        checkConcurrentUpdates(new IntRWCoarseList());
+    }
+
+    /**
+     * Measures the heap retained by a large IntCoarseList and a large
+     * CoarseList holding the same values, and checks that the int entries
+     * save at least a quarter of it: an Entry and its Integer against a
+     * single IntEntry.
+     */
+    public void testIntListMemory() {
+        final int n = 1_000_000;
+        final long boxedBytes = retainedBytes(() -> new CoarseList(), n);
+        final long intBytes = retainedBytes(() -> new IntCoarseList(), n);
+
+        final double boxedPerElement = (double) boxedBytes / n;
+        final double intPerElement = (double) intBytes / n;
+        System.out.println("=========================================================");
+        System.out.println("IntCoarseList vs. CoarseList memory (" + n + " elements)");
+        System.out.println("=========================================================");
+        System.out.println(boxedPerElement + " -> " + intPerElement + " bytes per element ("
+                + (intPerElement / boxedPerElement) + "x)");
+        System.out.println("=========================================================");
+
+        final String msg = String.format("Expected IntCoarseList to use at most 0.75x the memory of CoarseList, "
+                + "but it used %fx", intPerElement / boxedPerElement);
+        assertTrue(msg, intPerElement <= 0.75 * boxedPerElement);
+    }
+
+    /**
+     * Builds a list holding n distinct values outside the Integer cache, in
+     * decreasing order so that each add stops at the head of the list, and
+     * returns the growth of the used heap.
+     */
+    private static long retainedBytes(final ListFactory factory, final int n) {
+        final long before = usedHeap();
+        final ListSet list = factory.construct();
+        for (int v = 2 * n; v > n; v--) {
+            list.add(Integer.valueOf(v));
+        }
+        final long after = usedHeap();
+        assertTrue(list.contains(n + 1));
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            requestGarbageCollection();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * The int overloads and the inherited Integer methods must act on the
+     * same list.
+     */
+    public void testIntListOverloads() {
+        final IntListSet list = new IntCoarseList();
+        assertTrue(list.add(5));
+        assertTrue(list.add(-3));
+        assertFalse(list.add(Integer.valueOf(5)));
+        assertTrue(list.add(Integer.valueOf(12)));
+        assertTrue(list.contains(-3));
+        assertTrue(list.contains(Integer.valueOf(12)));
+        assertFalse(list.contains(7));
+        assertTrue(list.remove(Integer.valueOf(-3)));
+        assertFalse(list.remove(-3));
+
+        final int[] expected = {Integer.MIN_VALUE, 5, 12, Integer.MAX_VALUE};
+        IntEntry intCurr = list.getIntHead();
+        Entry curr = list.getHead();
+        for (int key : expected) {
+            assertEquals(key, intCurr.key);
+            assertEquals(Integer.valueOf(key), curr.object);
+            intCurr = intCurr.next;
+            curr = curr.next;
+        }
+        assertNull(intCurr);
+        assertNull(curr);
+    }
+
+    public void testStampedLockRead90() throws InterruptedException {
+        checkMixedWorkload(new StampedCoarseList(), 90);
+    }
+
+    public void testStampedLockRead99() throws InterruptedException {
+        checkMixedWorkload(new StampedCoarseList(), 99);
+    }
+
+    public void testStampedLockConcurrentUpdates() throws InterruptedException {
+        checkConcurrentUpdates(new StampedCoarseList());
+    }
+
     private void testCoarseGrainedLockingHelper(final SequenceGenerator addSeq,
             final SequenceGenerator containsSeq,
             final SequenceGenerator removeSeq, final double expectedAdd,
@@ -229,6 +540,248 @@ public class ListSetTest extends TestCase {
         assertTrue(removemsg, removeImprovement >= expectedRemove);
     }
 
+    /**
+     * Runs the kernel on a list built by factory and on a SyncList and checks
+     * that both give the same results. The throughputs are only reported:
+     * the lists whose benefit shows only with several cores are measured by
+     * ListSetBenchmark and reportScaling instead of a fixed floor.
+     */
+    private void checkSameResultsAsSyncList(final ListFactory factory,
+            final String lbl, final SequenceGenerator addSeq,
+            final SequenceGenerator containsSeq,
+            final SequenceGenerator removeSeq, final String datasetName)
+            throws InterruptedException {
+        checkSameResults(factory, lbl, () -> new SyncList(), "SyncList",
+                addSeq, containsSeq, removeSeq, datasetName);
+    }
+
+    /**
+     * Runs the kernel on a list built by factory and on a reference list
+     * built by refFactory and checks that both give the same results,
+     * reporting the throughput of each.
+     */
+    private void checkSameResults(final ListFactory factory,
+            final String lbl, final ListFactory refFactory,
+            final String refLbl, final SequenceGenerator addSeq,
+            final SequenceGenerator containsSeq,
+            final SequenceGenerator removeSeq, final String datasetName)
+            throws InterruptedException {
+        final TestResultsPair results = runKernel(factory, lbl, refFactory,
+                refLbl, addSeq, containsSeq, removeSeq);
+        printStats(results.B, results.A, addSeq, datasetName);
+        assertSameResults(results.B, results.A);
+    }
+
+    /**
+     * Checks that two runs of the kernel found the same list lengths and the
+     * same numbers of successful and failed operations.
+     */
+    private static void assertSameResults(final TestResults refResults,
+            final TestResults testResults) {
+        assertEquals(refResults.listLengthAfterAdds,
+                testResults.listLengthAfterAdds);
+        assertEquals(refResults.totalContainsSuccesses,
+                testResults.totalContainsSuccesses);
+        assertEquals(refResults.totalContainsFailures,
+                testResults.totalContainsFailures);
+        assertEquals(refResults.listLengthAfterRemoves,
+                testResults.listLengthAfterRemoves);
+        assertEquals(refResults.totalRemovesSuccesses,
+                testResults.totalRemovesSuccesses);
+        assertEquals(refResults.totalRemovesFailures,
+                testResults.totalRemovesFailures);
+    }
+
+    /**
+     * Hammers list with a fixed number of threads, whatever the number of
+     * cores, so that operations interleave. Each thread randomly adds and
+     * removes values it owns, tracking which of them should be present, and
+     * all threads race on a shared range of values, for which the successful
+     * adds minus the successful removes must be the number left. The list
+     * must end up holding exactly the expected values, in order.
+     */
+    private static void checkConcurrentUpdates(final ListSet list)
+            throws InterruptedException {
+        final int nThreads = 8;
+        final int owned = 2_000;
+        final int shared = 100;
+        final int opsPerThread = 50_000;
+        final boolean[][] present = new boolean[nThreads][owned / nThreads];
+        final int[] sharedBalance = new int[nThreads];
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        final Runnable[] runners = new Runnable[nThreads];
+        for (int t = 0; t < nThreads; t++) {
+            final int tid = t;
+            runners[t] = () -> {
+                final Random rand = new Random(tid);
+                for (int i = 0; i < opsPerThread && failure.get() == null; i++) {
+                    final int k = rand.nextInt(owned / nThreads);
+                    final Integer mine = k * nThreads + tid;
+                    final Integer other = owned + rand.nextInt(shared);
+                    try {
+                        switch (rand.nextInt(4)) {
+                            case 0:
+                                assertEquals(!present[tid][k], list.add(mine));
+                                present[tid][k] = true;
+                                if (list.add(other)) {
+                                    sharedBalance[tid]++;
+                                }
+                                break;
+                            case 1:
+                                assertEquals(present[tid][k], list.remove(mine));
+                                present[tid][k] = false;
+                                if (list.remove(other)) {
+                                    sharedBalance[tid]--;
+                                }
+                                break;
+                            default:
+                                assertEquals(present[tid][k], list.contains(mine));
+                                list.contains(other);
+                                break;
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            };
+        }
+        launchAndJoinAll(runners);
+        if (failure.get() != null) {
+            throw new AssertionError("Concurrent operation failed", failure.get());
+        }
+
+        int expectedShared = 0;
+        for (int t = 0; t < nThreads; t++) {
+            expectedShared += sharedBalance[t];
+        }
+        Entry curr = list.getHead().next;
+        for (int v = 0; v < owned; v++) {
+            if (present[v % nThreads][v / nThreads]) {
+                assertEquals(Integer.valueOf(v), curr.object);
+                assertTrue(list.contains(v));
+                curr = curr.next;
+            } else {
+                assertFalse(list.contains(v));
+            }
+        }
+        int nShared = 0;
+        while (curr.object < owned + shared) {
+            assertTrue(curr.next.object > curr.object);
+            nShared++;
+            curr = curr.next;
+        }
+        assertEquals(expectedShared, nShared);
+        assertEquals(Integer.valueOf(Integer.MAX_VALUE), curr.object);
+        assertNull(curr.next);
+    }
+
+    /**
+     * Runs the 90% contains mixed workload on lists built by factory with 1,
+     * 2, 4, ... threads, up to at least 2 and at least the number of cores,
+     * checking the list after every run, and reports the throughput of each
+     * thread count relative to one thread. The best of three runs is kept
+     * for each thread count.
+     */
+    private void reportScaling(final ListFactory factory, final String lbl)
+            throws InterruptedException {
+        System.out.println("=========================================================");
+        System.out.println(lbl + " scaling (90% contains, 10% add/remove)");
+        System.out.println("=========================================================");
+        System.out.println("# cores = " + getNCores());
+        double singleRate = 0.0;
+        for (int numThreads = 1; numThreads <= Math.max(2, getNCores()); numThreads *= 2) {
+            double rate = 0.0;
+            for (int r = 0; r < 3; r++) {
+                rate = Math.max(rate, mixedKernel(numThreads, factory.construct(), 90));
+            }
+            if (numThreads == 1) {
+                singleRate = rate;
+            }
+            System.out.println(numThreads + " threads: " + rate + " ops/ms, "
+                    + (rate / singleRate) + "x one thread");
+        }
+        System.out.println("=========================================================");
+    }
+
+    /**
+     * Runs a mixed workload, in which each thread interleaves contains with
+     * adds and removes in the given proportion, on list with a fixed number
+     * of threads, whatever the number of cores, so that optimistic reads
+     * race with writes. The list must end up sorted and agree with contains.
+     * Throughput under this workload is measured by ListSetBenchmark.
+     */
+    private void checkMixedWorkload(final ListSet list, final int readPercent)
+            throws InterruptedException {
+        mixedKernel(8, list, readPercent);
+    }
+
+    /**
+     * Fills list with half of the values below randNumsLength / 4, then has
+     * each thread run a fixed random sequence of operations on those values:
+     * contains with probability readPercent, otherwise an add or a remove.
+     * Checks that the list is then sorted and that contains agrees with it.
+     *
+     * @return Operations per millisecond of elapsed time, over all threads.
+     */
+    private double mixedKernel(final int numThreads, final ListSet list,
+            final int readPercent) throws InterruptedException {
+        final int range = randNumsLength / 4;
+        final int opsPerThread = 10 * randNumsLength;
+        final Random fill = new Random(0);
+        for (int i = 0; i < range / 2; i++) {
+            list.add(fill.nextInt(range));
+        }
+
+        final Runnable[] runners = new Runnable[numThreads];
+        for (int t = 0; t < numThreads; t++) {
+            final Random rand = new Random(t + 1);
+            final Integer[] nums = new Integer[opsPerThread];
+            final int[] ops = new int[opsPerThread];
+            for (int i = 0; i < opsPerThread; i++) {
+                nums[i] = rand.nextInt(range);
+                ops[i] = rand.nextInt(100) < readPercent ? 0 : 1 + rand.nextInt(2);
+            }
+            runners[t] = () -> {
+                for (int i = 0; i < nums.length; i++) {
+                    switch (ops[i]) {
+                        case 0:
+                            list.contains(nums[i]);
+                            break;
+                        case 1:
+                            list.add(nums[i]);
+                            break;
+                        default:
+                            list.remove(nums[i]);
+                            break;
+                    }
+                }
+            };
+        }
+        final long startTime = System.nanoTime();
+        launchAndJoinAll(runners);
+        final double time = (System.nanoTime() - startTime) / 1e6;
+        requestGarbageCollection();
+
+        final boolean[] present = new boolean[range];
+        Entry prev = list.getHead();
+        Entry curr = prev.next;
+        while (curr != null) {
+            assertTrue("List was not sorted",
+                    curr.object.intValue() > prev.object.intValue());
+            if (curr.next != null) {
+                present[curr.object] = true;
+            }
+            prev = curr;
+            curr = curr.next;
+        }
+        for (int v = 0; v < range; v++) {
+            assertEquals(present[v], list.contains(v));
+        }
+
+        return (double)(numThreads * opsPerThread) / time;
+    }
+
     private static TestResultsPair runKernel(final ListFactory factoryA,
             final String lblA, final ListFactory factoryB, final String lblB,
             final SequenceGenerator addSeq, final SequenceGenerator containsSeq,
@@ -0,0 +1,203 @@
+package edu.coursera.parallel;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the sequential and parallel matrix multiply. The PCDP
+ * runtime is resized to the requested number of worker threads before each
+ * trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MatrixMultiplyBenchmark {
+    /**
+     * Size of each dimension of the square matrices.
+     */
+    @Param({"256", "512", "1024", "2048"})
+    private int size;
+    /**
+     * Number of PCDP worker threads.
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    /**
+     * Left operand.
+     */
+    private double[][] a;
+    /**
+     * Right operand.
+     */
+    private double[][] b;
+    /**
+     * Output matrix.
+     */
+    private double[][] c;
+    /**
+     * Left operand that is 97% zeros.
+     */
+    private double[][] sparseA;
+    /**
+     * Flat copy of a.
+     */
+    private DenseMatrix denseA;
+    /**
+     * Flat copy of b.
+     */
+    private DenseMatrix denseB;
+    /**
+     * Flat output matrix.
+     */
+    private DenseMatrix denseC;
+
+    /**
+     * Creates the matrices and sizes the PCDP runtime.
+     */
+    @Setup
+    public void setup() {
+        a = createMatrix(size, 314);
+        b = createMatrix(size, 271);
+        c = new double[size][size];
+        sparseA = createSparseMatrix(size, 0.03, 161);
+        denseA = new DenseMatrix(a);
+        denseB = new DenseMatrix(b);
+        denseC = new DenseMatrix(size, size);
+        edu.rice.pcdp.runtime.Runtime.resizeWorkerThreads(threads);
+    }
+
+    /**
+     * Creates a random square matrix.
+     *
+     * @param n    Size of each dimension
+     * @param seed Random seed
+     * @return The new matrix
+     */
+    private static double[][] createMatrix(final int n, final long seed) {
+        final double[][] m = new double[n][n];
+        final Random rand = new Random(seed);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                m[i][j] = rand.nextInt(100);
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Creates a random square matrix that is mostly zeros.
+     *
+     * @param n       Size of each dimension
+     * @param density Fraction of nonzero elements
+     * @param seed    Random seed
+     * @return The new matrix
+     */
+    private static double[][] createSparseMatrix(final int n,
+            final double density, final long seed) {
+        final double[][] m = new double[n][n];
+        final Random rand = new Random(seed);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (rand.nextDouble() < density) {
+                    m[i][j] = 1 + rand.nextInt(99);
+                }
+            }
+        }
+        return m;
+    }
+
+    /**
+     * Sequential multiply.
+     *
+     * @return The output matrix
+     */
+    @Benchmark
+    public double[][] seqMatrixMultiply() {
+        MatrixMultiply.seqMatrixMultiply(a, b, c, size);
+        return c;
+    }
+
+    /**
+     * Parallel multiply.
+     *
+     * @return The output matrix
+     */
+    @Benchmark
+    public double[][] parMatrixMultiply() {
+        MatrixMultiply.parMatrixMultiply(a, b, c, size);
+        return c;
+    }
+
+    /**
+     * Parallel cache-blocked multiply.
+     *
+     * @return The output matrix
+     */
+    @Benchmark
+    public double[][] blockedMatrixMultiply() {
+        MatrixMultiply.blockedMatrixMultiply(a, b, c, size);
+        return c;
+    }
+
+    /**
+     * Parallel Strassen multiply with the default cutoff.
+     *
+     * @return The output matrix
+     */
+    @Benchmark
+    public double[][] strassenMatrixMultiply() {
+        MatrixMultiply.strassenMatrixMultiply(a, b, c, size);
+        return c;
+    }
+
+    /**
+     * Parallel multiply over flat row-major matrices.
+     *
+     * @return The output matrix
+     */
+    @Benchmark
+    public DenseMatrix denseMatrixMultiply() {
+        MatrixMultiply.parMatrixMultiply(denseA, denseB, denseC);
+        return denseC;
+    }
+
+    /**
+     * Parallel blocked multiply of a mostly zero left operand, for comparison
+     * with sparseMatrixMultiply.
+     *
+     * @return The output matrix
+     */
+    @Benchmark
+    public double[][] blockedMatrixMultiplyOfSparse() {
+        MatrixMultiply.blockedMatrixMultiply(sparseA, b, c, size);
+        return c;
+    }
+
+    /**
+     * Parallel sparse multiply of a mostly zero left operand, including its
+     * conversion to CSR form.
+     *
+     * @return The output matrix
+     */
+    @Benchmark
+    public double[][] sparseMatrixMultiply() {
+        MatrixMultiply.sparseMatrixMultiply(sparseA, b, c, size);
+        return c;
+    }
+}
@@ -0,0 +1,137 @@
+package edu.coursera.parallel;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the sequential, barrier and fuzzy barrier versions of
+ * one-dimensional iterative averaging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OneDimAveragingPhaserBenchmark {
+    /**
+     * Number of interior cells.
+     */
+    @Param({"65536", "1048576", "4194304"})
+    private int size;
+    /**
+     * Number of averaging iterations per invocation.
+     */
+    @Param({"100"})
+    private int iterations;
+    /**
+     * Number of threads/tasks.
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+    /**
+     * Number of iterations per superstep of runParallelTemporalBlocking.
+     */
+    @Param({"16"})
+    private int blockingFactor;
+
+    /**
+     * Output array.
+     */
+    private double[] myNew;
+    /**
+     * Input array.
+     */
+    private double[] myVal;
+    /**
+     * Persistent workers, one per thread.
+     */
+    private OneDimAveragingSolver solver;
+
+    /**
+     * Creates the arrays, with fixed boundary values of 1 at the right end.
+     */
+    @Setup
+    public void setup() {
+        myNew = new double[size + 2];
+        myVal = new double[size + 2];
+        myNew[size + 1] = 1.0;
+        myVal[size + 1] = 1.0;
+        solver = new OneDimAveragingSolver(threads);
+    }
+
+    /**
+     * Stops the persistent workers.
+     */
+    @TearDown
+    public void tearDown() {
+        solver.close();
+    }
+
+    /**
+     * Sequential averaging.
+     *
+     * @return The output array
+     */
+    @Benchmark
+    public double[] runSequential() {
+        OneDimAveragingPhaser.runSequential(iterations, myNew, myVal, size);
+        return myNew;
+    }
+
+    /**
+     * Parallel averaging with a global barrier per iteration.
+     *
+     * @return The output array
+     */
+    @Benchmark
+    public double[] runParallelBarrier() {
+        OneDimAveragingPhaser.runParallelBarrier(iterations, myNew, myVal, size, threads);
+        return myNew;
+    }
+
+    /**
+     * Parallel averaging with point-to-point fuzzy barriers.
+     *
+     * @return The output array
+     */
+    @Benchmark
+    public double[] runParallelFuzzyBarrier() {
+        OneDimAveragingPhaser.runParallelFuzzyBarrier(iterations, myNew, myVal, size, threads);
+        return myNew;
+    }
+
+    /**
+     * Parallel averaging with temporal blocking.
+     *
+     * @return The output array
+     */
+    @Benchmark
+    public double[] runParallelTemporalBlocking() {
+        OneDimAveragingPhaser.runParallelTemporalBlocking(iterations, myNew, myVal, size, threads, blockingFactor);
+        return myNew;
+    }
+
+    /**
+     * Parallel averaging with fuzzy barriers on persistent workers.
+     *
+     * @return The output array
+     */
+    @Benchmark
+    public double[] runPersistentSolver() {
+        solver.run(iterations, myNew, myVal, size);
+        return myNew;
+    }
+}
@@ -0,0 +1,134 @@
+package edu.coursera.parallel;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the sequential and parallel reciprocal array sums. The
+ * parallel versions run inside a dedicated Fork Join pool with the requested
+ * number of threads, so that forked tasks stay in that pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReciprocalArraySumBenchmark {
+    /**
+     * Number of elements in the input array.
+     */
+    @Param({"1000000", "10000000", "100000000"})
+    private int size;
+    /**
+     * Number of worker threads, also used as the task count.
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    /**
+     * Input array, free of zeros.
+     */
+    private double[] input;
+    /**
+     * Pool running the parallel versions.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Creates the input and the pool.
+     */
+    @Setup
+    public void setup() {
+        input = new double[size];
+        final Random rand = new Random(314);
+        for (int i = 0; i < size; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Shuts down the pool.
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Baseline sequential sum.
+     *
+     * @return The sum of reciprocals
+     */
+    @Benchmark
+    public double seqArraySum() {
+        return ReciprocalArraySum.seqArraySum(input);
+    }
+
+    /**
+     * Two-task parallel sum.
+     *
+     * @return The sum of reciprocals
+     */
+    @Benchmark
+    public double parArraySum() {
+        return pool.submit(() -> ReciprocalArraySum.parArraySum(input)).join();
+    }
+
+    /**
+     * One task per thread.
+     *
+     * @return The sum of reciprocals
+     */
+    @Benchmark
+    public double parManyTaskArraySum() {
+        return pool.submit(() -> ReciprocalArraySum.parManyTaskArraySum(input, threads)).join();
+    }
+
+    /**
+     * One task per thread, with the multi-accumulator leaf kernel.
+     *
+     * @return The sum of reciprocals
+     */
+    @Benchmark
+    public double parManyTaskArraySumUnrolled() {
+        return pool.submit(() -> ReciprocalArraySum.parManyTaskArraySum(input, threads,
+                ReciprocalArraySum.LeafKernel.UNROLLED)).join();
+    }
+
+    /**
+     * One task per thread, with deterministic compensated summation.
+     *
+     * @return The sum of reciprocals
+     */
+    @Benchmark
+    public double parManyTaskArraySumCompensated() {
+        return pool.submit(() -> ReciprocalArraySum.parManyTaskArraySum(input, threads,
+                SummationMode.COMPENSATED)).join();
+    }
+
+    /**
+     * One initial chunk per thread, split further on demand inside the pool.
+     *
+     * @return The sum of reciprocals
+     */
+    @Benchmark
+    public double parManyTaskArraySumAdaptive() {
+        return ReciprocalArraySum.parManyTaskArraySum(input, threads, pool);
+    }
+}
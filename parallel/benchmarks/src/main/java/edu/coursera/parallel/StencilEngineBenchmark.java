@@ -0,0 +1,105 @@
+package edu.coursera.parallel;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the sequential and fuzzy barrier versions of Jacobi
+ * relaxation with the 5-point stencil in two dimensions and the 7-point
+ * stencil in three.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StencilEngineBenchmark {
+    /**
+     * Interior size of the grid, one size per dimension separated by 'x'.
+     */
+    @Param({"2048x2048", "128x128x128"})
+    private String shape;
+    /**
+     * Number of relaxation iterations per invocation.
+     */
+    @Param({"20"})
+    private int iterations;
+    /**
+     * Number of threads/tasks.
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    /**
+     * Interior size of each dimension of the grid.
+     */
+    private int[] dims;
+    /**
+     * The Jacobi stencil for the dimensions of the grid.
+     */
+    private Stencil stencil;
+    /**
+     * Output grid.
+     */
+    private double[] myNew;
+    /**
+     * Input grid.
+     */
+    private double[] myVal;
+
+    /**
+     * Creates the grids, with fixed boundary values of 1 in the last plane.
+     */
+    @Setup
+    public void setup() {
+        final String[] sizes = shape.split("x");
+        dims = new int[sizes.length];
+        for (int d = 0; d < sizes.length; d++) {
+            dims[d] = Integer.parseInt(sizes[d]);
+        }
+        stencil = Stencil.jacobi(dims.length);
+        final int length = StencilEngine.getGridLength(stencil, dims);
+        myNew = new double[length];
+        myVal = new double[length];
+        final int[] lastPlane = new int[dims.length];
+        lastPlane[0] = dims[0] + 2 * stencil.getRadius() - 1;
+        for (int j = StencilEngine.getIndex(stencil, dims, lastPlane); j < length; j++) {
+            myNew[j] = 1.0;
+            myVal[j] = 1.0;
+        }
+    }
+
+    /**
+     * Sequential relaxation.
+     *
+     * @return The output grid
+     */
+    @Benchmark
+    public double[] runSequential() {
+        StencilEngine.runSequential(stencil, iterations, myNew, myVal, dims);
+        return myNew;
+    }
+
+    /**
+     * Parallel relaxation with point-to-point fuzzy barriers between slabs.
+     *
+     * @return The output grid
+     */
+    @Benchmark
+    public double[] runParallelFuzzyBarrier() {
+        StencilEngine.runParallelFuzzyBarrier(stencil, iterations, myNew, myVal, threads, dims);
+        return myNew;
+    }
+}
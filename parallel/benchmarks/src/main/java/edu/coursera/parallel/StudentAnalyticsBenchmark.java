@@ -0,0 +1,263 @@
+package edu.coursera.parallel;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks for the imperative and parallel stream student analytics.
+ * The parallel streams are started from inside a dedicated Fork Join pool
+ * with the requested number of threads, which then runs the stream tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentAnalyticsBenchmark {
+    /**
+     * First names to draw from.
+     */
+    private static final String[] FIRST_NAMES = {"Sanjay", "Yunming", "John", "Vivek", "Shams", "Max"};
+    /**
+     * Last names to draw from.
+     */
+    private static final String[] LAST_NAMES = {"Chatterjee", "Zhang", "Smith", "Sarkar", "Imam", "Grossman"};
+
+    /**
+     * Number of students.
+     */
+    @Param({"100000", "2000000", "20000000"})
+    private int size;
+    /**
+     * Number of worker threads for the parallel streams.
+     */
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    /**
+     * Student data, 30% of which is currently enrolled.
+     */
+    private Student[] students;
+    /**
+     * Columnar copy of students.
+     */
+    private StudentTable table;
+    /**
+     * Block statistics over students.
+     */
+    private StudentBlocks blocks;
+    /**
+     * Analytics under test.
+     */
+    private final StudentAnalytics analytics = new StudentAnalytics();
+    /**
+     * Pool running the parallel streams.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Creates the student data and the pool.
+     */
+    @Setup
+    public void setup() {
+        final int nCurrent = (int) (size * 0.3);
+        students = new Student[size];
+        final Random r = new Random(123);
+        for (int s = 0; s < size; s++) {
+            students[s] = new Student(FIRST_NAMES[r.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[r.nextInt(LAST_NAMES.length)], r.nextDouble() * 100.0,
+                    1 + r.nextInt(100), s < nCurrent);
+        }
+        table = new StudentTable(students);
+        blocks = new StudentBlocks(students);
+        pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Shuts down the pool.
+     */
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Imperative average age of enrolled students.
+     *
+     * @return The average age
+     */
+    @Benchmark
+    public double averageAgeOfEnrolledStudentsImperative() {
+        return analytics.averageAgeOfEnrolledStudentsImperative(students);
+    }
+
+    /**
+     * Parallel stream average age of enrolled students.
+     *
+     * @return The average age
+     */
+    @Benchmark
+    public double averageAgeOfEnrolledStudentsParallelStream() {
+        return pool.submit(() -> analytics.averageAgeOfEnrolledStudentsParallelStream(students)).join();
+    }
+
+    /**
+     * Imperative most common first name of inactive students.
+     *
+     * @return The most common name
+     */
+    @Benchmark
+    public String mostCommonFirstNameOfInactiveStudentsImperative() {
+        return analytics.mostCommonFirstNameOfInactiveStudentsImperative(students);
+    }
+
+    /**
+     * Parallel stream most common first name of inactive students.
+     *
+     * @return The most common name
+     */
+    @Benchmark
+    public String mostCommonFirstNameOfInactiveStudentsParallelStream() {
+        return pool.submit(() -> analytics.mostCommonFirstNameOfInactiveStudentsParallelStream(students)).join();
+    }
+
+    /**
+     * Imperative count of failed students older than 20.
+     *
+     * @return The number of failed students
+     */
+    @Benchmark
+    public int countNumberOfFailedStudentsOlderThan20Imperative() {
+        return analytics.countNumberOfFailedStudentsOlderThan20Imperative(students);
+    }
+
+    /**
+     * Parallel stream count of failed students older than 20.
+     *
+     * @return The number of failed students
+     */
+    @Benchmark
+    public int countNumberOfFailedStudentsOlderThan20ParallelStream() {
+        return pool.submit(() -> analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(students)).join();
+    }
+
+    /**
+     * Parallel average age of enrolled students over the columnar table.
+     *
+     * @return The average age
+     */
+    @Benchmark
+    public double averageAgeOfEnrolledStudentsTable() {
+        return pool.submit(() -> analytics.averageAgeOfEnrolledStudentsParallelStream(table)).join();
+    }
+
+    /**
+     * Parallel most common first name of inactive students over the columnar table.
+     *
+     * @return The most common name
+     */
+    @Benchmark
+    public String mostCommonFirstNameOfInactiveStudentsTable() {
+        return pool.submit(() -> analytics.mostCommonFirstNameOfInactiveStudentsParallelStream(table)).join();
+    }
+
+    /**
+     * Parallel count of failed students older than 20 over the columnar table.
+     *
+     * @return The number of failed students
+     */
+    @Benchmark
+    public int countNumberOfFailedStudentsOlderThan20Table() {
+        return pool.submit(() -> analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(table)).join();
+    }
+
+    /**
+     * Parallel most common first name of inactive students with dictionary-encoded histograms.
+     *
+     * @return The most common name
+     */
+    @Benchmark
+    public String mostCommonFirstNameOfInactiveStudentsHistogram() {
+        return pool.submit(() -> analytics.mostCommonFirstNameOfInactiveStudentsHistogram(students)).join();
+    }
+
+    /**
+     * Parallel approximate most common first name of inactive students with count-min sketches.
+     *
+     * @return The most common name
+     */
+    @Benchmark
+    public String mostCommonFirstNameOfInactiveStudentsApproximate() {
+        return pool.submit(() -> analytics.mostCommonFirstNameOfInactiveStudentsApproximate(students)).join();
+    }
+
+    /**
+     * All three parallel analytics, one stream pass each.
+     *
+     * @param bh Blackhole consuming the results
+     */
+    @Benchmark
+    public void allQueriesSeparateParallelStream(final Blackhole bh) {
+        pool.submit(() -> {
+            bh.consume(analytics.averageAgeOfEnrolledStudentsParallelStream(students));
+            bh.consume(analytics.mostCommonFirstNameOfInactiveStudentsParallelStream(students));
+            bh.consume(analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(students));
+        }).join();
+    }
+
+    /**
+     * All three analytics fused into a single parallel pass.
+     *
+     * @return The answers
+     */
+    @Benchmark
+    public StudentQueryResults allQueriesFusedParallelStream() {
+        return pool.submit(() -> analytics.evaluateQueriesParallelStream(students, StudentQuery.values())).join();
+    }
+
+    /**
+     * Parallel average age of enrolled students from block statistics.
+     *
+     * @return The average age
+     */
+    @Benchmark
+    public double averageAgeOfEnrolledStudentsBlocks() {
+        return pool.submit(() -> analytics.averageAgeOfEnrolledStudentsParallelStream(blocks)).join();
+    }
+
+    /**
+     * Parallel count of failed students older than 20, pruned with block zone maps.
+     *
+     * @return The number of failed students
+     */
+    @Benchmark
+    public int countNumberOfFailedStudentsOlderThan20Blocks() {
+        return pool.submit(() -> analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(blocks)).join();
+    }
+
+    /**
+     * Sequential count of failed students older than 20, pruned with block zone maps.
+     *
+     * @return The number of failed students
+     */
+    @Benchmark
+    public int countNumberOfFailedStudentsOlderThan20BlocksImperative() {
+        return analytics.countNumberOfFailedStudentsOlderThan20Imperative(blocks);
+    }
+}
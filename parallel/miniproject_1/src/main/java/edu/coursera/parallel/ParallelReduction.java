@@ -0,0 +1,1027 @@
+package edu.coursera.parallel;
+
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Class wrapping a primitive-specialized map/reduce over arrays, built on the
+ * Java Fork Join framework. Each element is first transformed by a map
+ * operator and the results are then folded together with an associative
+ * combine operator, e.g. {@code x -> 1 / x} and {@code Double::sum} for the
+ * reciprocal array sum.
+ */
+public final class ParallelReduction {
+    /**
+     * Smallest number of elements handled by a single leaf task. Ranges below
+     * this size are always reduced sequentially.
+     */
+    static final int MIN_THRESHOLD = 1000;
+    /**
+     * Number of leaf tasks to aim for per worker thread, so that work stealing
+     * has something to balance when some workers fall behind.
+     */
+    static final int LEAF_TASKS_PER_WORKER = 4;
+    /**
+     * Default relative tolerance used when comparing a parallel reduction
+     * against its sequential counterpart.
+     */
+    public static final double DEFAULT_TOLERANCE = 1E-9;
+    /**
+     * Number of consecutive elements summed together by compensated
+     * summation. The block layout depends only on the input length, never on
+     * the number of tasks, which is what makes the result reproducible.
+     */
+    static final int COMPENSATED_BLOCK_SIZE = 4096;
+    /**
+     * Number of queued tasks a worker may hold beyond what idle workers are
+     * likely to steal before adaptive tasks stop splitting. Small values keep
+     * a few tasks available to thieves without flooding the deques.
+     */
+    static final int SURPLUS_QUEUED_TASK_LIMIT = 3;
+
+    /**
+     * Default constructor.
+     */
+    private ParallelReduction() {
+    }
+
+    /**
+     * Computes the range size below which a task stops splitting and reduces
+     * its elements sequentially. The threshold grows with the number of
+     * elements so that roughly LEAF_TASKS_PER_WORKER leaves are created per
+     * worker of the pool, but never drops below MIN_THRESHOLD.
+     *
+     * @param nElements   The number of elements to reduce
+     * @param parallelism The parallelism of the pool running the reduction
+     * @return The sequential threshold to use
+     */
+    static int getThreshold(final int nElements, final int parallelism) {
+        final int leaves = Math.max(1, parallelism) * LEAF_TASKS_PER_WORKER;
+        return Math.max(MIN_THRESHOLD, (nElements + leaves - 1) / leaves);
+    }
+
+    /**
+     * Computes the sequential threshold for a reduction running on the common
+     * pool.
+     *
+     * @param nElements The number of elements to reduce
+     * @return The sequential threshold to use
+     */
+    static int getThreshold(final int nElements) {
+        return getThreshold(nElements, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Checks whether a computed value matches an expected one within a
+     * relative tolerance. Values close to zero are compared absolutely.
+     *
+     * @param expected  The reference value, e.g. from a sequential reduction
+     * @param actual    The value to check
+     * @param tolerance The maximum allowed relative error
+     * @return true if actual is within tolerance of expected
+     */
+    public static boolean isWithinTolerance(final double expected,
+                                            final double actual,
+                                            final double tolerance) {
+        final double err = Math.abs(expected - actual);
+        return err <= tolerance * Math.max(1.0, Math.abs(expected));
+    }
+
+    /**
+     * Reduces all elements of a double array in parallel.
+     *
+     * @param input    Input array
+     * @param identity Identity value of combine
+     * @param map      Transformation applied to each element
+     * @param combine  Associative operator folding mapped elements together
+     * @return The reduction of the mapped elements
+     */
+    public static double reduce(final double[] input, final double identity,
+                                final DoubleUnaryOperator map,
+                                final DoubleBinaryOperator combine) {
+        final DoubleReductionTask task = new DoubleReductionTask(0,
+                input.length, input, identity, map, combine,
+                getThreshold(input.length));
+        ForkJoinPool.commonPool().invoke(task);
+        return task.getValue();
+    }
+
+    /**
+     * Reduces all elements of an int array in parallel.
+     *
+     * @param input    Input array
+     * @param identity Identity value of combine
+     * @param map      Transformation applied to each element
+     * @param combine  Associative operator folding mapped elements together
+     * @return The reduction of the mapped elements
+     */
+    public static int reduce(final int[] input, final int identity,
+                             final IntUnaryOperator map,
+                             final IntBinaryOperator combine) {
+        final IntReductionTask task = new IntReductionTask(0, input.length,
+                input, identity, map, combine, getThreshold(input.length));
+        ForkJoinPool.commonPool().invoke(task);
+        return task.getValue();
+    }
+
+    /**
+     * Reduces all elements of a long array in parallel.
+     *
+     * @param input    Input array
+     * @param identity Identity value of combine
+     * @param map      Transformation applied to each element
+     * @param combine  Associative operator folding mapped elements together
+     * @return The reduction of the mapped elements
+     */
+    public static long reduce(final long[] input, final long identity,
+                              final LongUnaryOperator map,
+                              final LongBinaryOperator combine) {
+        final LongReductionTask task = new LongReductionTask(0, input.length,
+                input, identity, map, combine, getThreshold(input.length));
+        ForkJoinPool.commonPool().invoke(task);
+        return task.getValue();
+    }
+
+    /**
+     * Reduces the remaining elements of a double buffer in parallel. The
+     * buffer may be direct or memory-mapped, in which case the elements are
+     * read in place without being copied onto the heap. The buffer's position
+     * and limit are left unchanged.
+     *
+     * @param input    Input buffer, reduced from its position to its limit
+     * @param identity Identity value of combine
+     * @param map      Transformation applied to each element
+     * @param combine  Associative operator folding mapped elements together
+     * @return The reduction of the mapped elements
+     */
+    public static double reduce(final DoubleBuffer input, final double identity,
+                                final DoubleUnaryOperator map,
+                                final DoubleBinaryOperator combine) {
+        final DoubleBuffer view = input.slice();
+        final DoubleBufferReductionTask task = new DoubleBufferReductionTask(0,
+                view.limit(), view, identity, map, combine,
+                getThreshold(view.limit()));
+        ForkJoinPool.commonPool().invoke(task);
+        return task.getValue();
+    }
+
+    /**
+     * Sums the mapped elements of a double array in parallel.
+     *
+     * @param input Input array
+     * @param map   Transformation applied to each element
+     * @return The sum of the mapped elements
+     */
+    public static double sum(final double[] input,
+                             final DoubleUnaryOperator map) {
+        return reduce(input, 0.0, map, Double::sum);
+    }
+
+    /**
+     * Computes the dot product of two double arrays of equal length in
+     * parallel.
+     *
+     * @param a First input vector
+     * @param b Second input vector
+     * @return The dot product of a and b
+     */
+    public static double dot(final double[] a, final double[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Vector lengths differ: "
+                    + a.length + " != " + b.length);
+        }
+        final DoubleIndexedTask task = new DoubleIndexedTask(0, a.length,
+                i -> a[i] * b[i], getThreshold(a.length));
+        ForkJoinPool.commonPool().invoke(task);
+        return task.getValue();
+    }
+
+    /**
+     * Computes the Euclidean norm of a double array in parallel.
+     *
+     * @param input Input vector
+     * @return The Euclidean norm of input
+     */
+    public static double norm(final double[] input) {
+        return Math.sqrt(sum(input, x -> x * x));
+    }
+
+    /**
+     * Sums the mapped elements of a double array using compensated summation,
+     * spreading the work over a given number of tasks. The input is cut into
+     * blocks of COMPENSATED_BLOCK_SIZE elements, each block is summed with
+     * Neumaier's variant of Kahan summation, and the block sums are then
+     * added pairwise. Since neither step depends on numTasks, the result is
+     * bit-identical for every task count.
+     *
+     * @param input    Input array
+     * @param map      Transformation applied to each element
+     * @param numTasks The number of tasks to create
+     * @return The compensated sum of the mapped elements
+     */
+    public static double compensatedSum(final double[] input,
+                                        final DoubleUnaryOperator map,
+                                        final int numTasks) {
+        final int nBlocks = (input.length + COMPENSATED_BLOCK_SIZE - 1) / COMPENSATED_BLOCK_SIZE;
+        if (nBlocks == 0) {
+            return 0.0;
+        }
+        final double[] blockSums = new double[nBlocks];
+
+        final int nTasks = Math.max(1, Math.min(numTasks, nBlocks));
+        final int blocksPerTask = (nBlocks + nTasks - 1) / nTasks;
+        final List<BlockSumTask> tasks = new ArrayList<>(nTasks);
+        for (int i = 0; i < nTasks; i++) {
+            final int startBlock = i * blocksPerTask;
+            final int endBlock = Math.min(startBlock + blocksPerTask, nBlocks);
+            if (startBlock < endBlock) {
+                tasks.add(new BlockSumTask(startBlock, endBlock, input, map, blockSums));
+            }
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        return pairwiseSum(blockSums, 0, nBlocks);
+    }
+
+    /**
+     * Sums a range of the mapped elements of a double array sequentially with
+     * Neumaier's compensated summation.
+     *
+     * @param input               Input array
+     * @param startIndexInclusive Starting index of the range
+     * @param endIndexExclusive   Ending index of the range
+     * @param map                 Transformation applied to each element
+     * @return The compensated sum of the mapped elements in the range
+     */
+    static double neumaierSum(final double[] input,
+                              final int startIndexInclusive,
+                              final int endIndexExclusive,
+                              final DoubleUnaryOperator map) {
+        double sum = 0.0;
+        double compensation = 0.0;
+        for (int i = startIndexInclusive; i < endIndexExclusive; i++) {
+            final double v = map.applyAsDouble(input[i]);
+            final double t = sum + v;
+            if (Math.abs(sum) >= Math.abs(v)) {
+                compensation += (sum - t) + v;
+            } else {
+                compensation += (v - t) + sum;
+            }
+            sum = t;
+        }
+        return sum + compensation;
+    }
+
+    /**
+     * Adds up a non-empty range of values by recursive halving, which keeps
+     * the rounding error logarithmic in the number of values.
+     *
+     * @param values              Values to add
+     * @param startIndexInclusive Starting index of the range
+     * @param endIndexExclusive   Ending index of the range
+     * @return The pairwise sum of the range
+     */
+    static double pairwiseSum(final double[] values,
+                              final int startIndexInclusive,
+                              final int endIndexExclusive) {
+        if (endIndexExclusive - startIndexInclusive == 1) {
+            return values[startIndexInclusive];
+        }
+        final int mid = startIndexInclusive + (endIndexExclusive - startIndexInclusive) / 2;
+        return pairwiseSum(values, startIndexInclusive, mid)
+                + pairwiseSum(values, mid, endIndexExclusive);
+    }
+
+    /**
+     * Task computing the compensated sums of a range of fixed-size blocks.
+     */
+    static final class BlockSumTask extends RecursiveAction {
+        /**
+         * First block handled by this task.
+         */
+        private final int startBlockInclusive;
+        /**
+         * Block after the last one handled by this task.
+         */
+        private final int endBlockExclusive;
+        /**
+         * Input array to sum.
+         */
+        private final double[] input;
+        /**
+         * Transformation applied to each element.
+         */
+        private final DoubleUnaryOperator map;
+        /**
+         * Output array receiving one sum per block.
+         */
+        private final double[] blockSums;
+
+        /**
+         * Constructor.
+         *
+         * @param setStartBlockInclusive First block to sum
+         * @param setEndBlockExclusive   Block after the last one to sum
+         * @param setInput               Input values
+         * @param setMap                 Transformation applied to each element
+         * @param setBlockSums           Output array of block sums
+         */
+        BlockSumTask(final int setStartBlockInclusive,
+                     final int setEndBlockExclusive,
+                     final double[] setInput,
+                     final DoubleUnaryOperator setMap,
+                     final double[] setBlockSums) {
+            this.startBlockInclusive = setStartBlockInclusive;
+            this.endBlockExclusive = setEndBlockExclusive;
+            this.input = setInput;
+            this.map = setMap;
+            this.blockSums = setBlockSums;
+        }
+
+        @Override
+        protected void compute() {
+            for (int b = startBlockInclusive; b < endBlockExclusive; b++) {
+                final int start = b * COMPENSATED_BLOCK_SIZE;
+                final int end = Math.min(start + COMPENSATED_BLOCK_SIZE, input.length);
+                blockSums[b] = neumaierSum(input, start, end, map);
+            }
+        }
+    }
+
+    /**
+     * A sequential kernel summing a contiguous range of a double array.
+     */
+    interface RangeSumKernel {
+        /**
+         * Sums a range of the input.
+         *
+         * @param input               Input array
+         * @param startIndexInclusive Starting index of the range
+         * @param endIndexExclusive   Ending index of the range
+         * @return The sum computed by this kernel over the range
+         */
+        double sum(double[] input, int startIndexInclusive, int endIndexExclusive);
+    }
+
+    /**
+     * Task summing a range of a double array, delegating its leaves to a
+     * whole-range kernel rather than a per-element map. This lets a leaf use
+     * loop shapes the JIT compiles better than a generic map/combine loop.
+     */
+    static final class RangeSumTask extends RecursiveAction {
+        /**
+         * Starting index for traversal done by this task.
+         */
+        private final int startIndexInclusive;
+        /**
+         * Ending index for traversal done by this task.
+         */
+        private final int endIndexExclusive;
+        /**
+         * Input array to sum.
+         */
+        private final double[] input;
+        /**
+         * Kernel summing each leaf range.
+         */
+        private final RangeSumKernel kernel;
+        /**
+         * Range size below which this task sums sequentially.
+         */
+        private final int threshold;
+        /**
+         * Intermediate value produced by this task.
+         */
+        private double value;
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive Set the starting index to begin
+         *                               parallel traversal at.
+         * @param setEndIndexExclusive   Set ending index for parallel traversal.
+         * @param setInput               Input values
+         * @param setKernel              Kernel summing each leaf range
+         * @param setThreshold           Sequential threshold
+         */
+        RangeSumTask(final int setStartIndexInclusive,
+                     final int setEndIndexExclusive,
+                     final double[] setInput,
+                     final RangeSumKernel setKernel,
+                     final int setThreshold) {
+            this.startIndexInclusive = setStartIndexInclusive;
+            this.endIndexExclusive = setEndIndexExclusive;
+            this.input = setInput;
+            this.kernel = setKernel;
+            this.threshold = setThreshold;
+        }
+
+        /**
+         * Getter for the value produced by this task.
+         *
+         * @return Value produced by this task
+         */
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        protected void compute() {
+            if (endIndexExclusive - startIndexInclusive <= threshold) {
+                value = kernel.sum(input, startIndexInclusive, endIndexExclusive);
+            } else {
+                final int mid = startIndexInclusive + (endIndexExclusive - startIndexInclusive) / 2;
+                final RangeSumTask left = new RangeSumTask(startIndexInclusive, mid,
+                        input, kernel, threshold);
+                final RangeSumTask right = new RangeSumTask(mid, endIndexExclusive,
+                        input, kernel, threshold);
+
+                left.fork();
+                right.compute();
+                left.join();
+
+                value = left.getValue() + right.getValue();
+            }
+        }
+    }
+
+    /**
+     * Task summing a range of a double array that splits on demand. Rather
+     * than dividing down to a fixed threshold up front, it keeps forking off
+     * the upper half of its range only while its worker has few surplus
+     * queued tasks, i.e. while other workers seem to be running out of work.
+     * Workers slowed down by other load on the machine then simply split
+     * less, and the idle ones steal the pieces they leave behind.
+     */
+    static final class AdaptiveRangeSumTask extends RecursiveAction {
+        /**
+         * Starting index for traversal done by this task.
+         */
+        private final int startIndexInclusive;
+        /**
+         * Ending index for traversal done by this task.
+         */
+        private final int endIndexExclusive;
+        /**
+         * Input array to sum.
+         */
+        private final double[] input;
+        /**
+         * Kernel summing each leaf range.
+         */
+        private final RangeSumKernel kernel;
+        /**
+         * Smallest range this task will split.
+         */
+        private final int minSplitSize;
+        /**
+         * Next task forked by the same parent, joined after this one.
+         */
+        private AdaptiveRangeSumTask nextForked;
+        /**
+         * Intermediate value produced by this task.
+         */
+        private double value;
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive Set the starting index to begin
+         *                               parallel traversal at.
+         * @param setEndIndexExclusive   Set ending index for parallel traversal.
+         * @param setInput               Input values
+         * @param setKernel              Kernel summing each leaf range
+         * @param setMinSplitSize        Smallest range to split
+         */
+        AdaptiveRangeSumTask(final int setStartIndexInclusive,
+                             final int setEndIndexExclusive,
+                             final double[] setInput,
+                             final RangeSumKernel setKernel,
+                             final int setMinSplitSize) {
+            this.startIndexInclusive = setStartIndexInclusive;
+            this.endIndexExclusive = setEndIndexExclusive;
+            this.input = setInput;
+            this.kernel = setKernel;
+            this.minSplitSize = setMinSplitSize;
+        }
+
+        /**
+         * Getter for the value produced by this task.
+         *
+         * @return Value produced by this task
+         */
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        protected void compute() {
+            int end = endIndexExclusive;
+            AdaptiveRangeSumTask forked = null;
+            while (end - startIndexInclusive > minSplitSize
+                    && getSurplusQueuedTaskCount() <= SURPLUS_QUEUED_TASK_LIMIT) {
+                final int mid = startIndexInclusive + (end - startIndexInclusive) / 2;
+                final AdaptiveRangeSumTask right = new AdaptiveRangeSumTask(mid, end,
+                        input, kernel, minSplitSize);
+                right.nextForked = forked;
+                forked = right;
+                right.fork();
+                end = mid;
+            }
+
+            double sum = kernel.sum(input, startIndexInclusive, end);
+            while (forked != null) {
+                if (forked.tryUnfork()) {
+                    forked.compute();
+                } else {
+                    forked.join();
+                }
+                sum += forked.getValue();
+                forked = forked.nextForked;
+            }
+            value = sum;
+        }
+    }
+
+    /**
+     * Task reducing a range of a double array.
+     */
+    static final class DoubleReductionTask extends RecursiveAction {
+        /**
+         * Starting index for traversal done by this task.
+         */
+        private final int startIndexInclusive;
+        /**
+         * Ending index for traversal done by this task.
+         */
+        private final int endIndexExclusive;
+        /**
+         * Input array to reduce.
+         */
+        private final double[] input;
+        /**
+         * Identity value of combine.
+         */
+        private final double identity;
+        /**
+         * Transformation applied to each element.
+         */
+        private final DoubleUnaryOperator map;
+        /**
+         * Associative operator folding mapped elements together.
+         */
+        private final DoubleBinaryOperator combine;
+        /**
+         * Range size below which this task reduces sequentially.
+         */
+        private final int threshold;
+        /**
+         * Intermediate value produced by this task.
+         */
+        private double value;
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive Set the starting index to begin
+         *                               parallel traversal at.
+         * @param setEndIndexExclusive   Set ending index for parallel traversal.
+         * @param setInput               Input values
+         * @param setIdentity            Identity value of combine
+         * @param setMap                 Transformation applied to each element
+         * @param setCombine             Operator folding mapped elements
+         * @param setThreshold           Sequential threshold
+         */
+        DoubleReductionTask(final int setStartIndexInclusive,
+                            final int setEndIndexExclusive,
+                            final double[] setInput,
+                            final double setIdentity,
+                            final DoubleUnaryOperator setMap,
+                            final DoubleBinaryOperator setCombine,
+                            final int setThreshold) {
+            this.startIndexInclusive = setStartIndexInclusive;
+            this.endIndexExclusive = setEndIndexExclusive;
+            this.input = setInput;
+            this.identity = setIdentity;
+            this.map = setMap;
+            this.combine = setCombine;
+            this.threshold = setThreshold;
+        }
+
+        /**
+         * Getter for the value produced by this task.
+         *
+         * @return Value produced by this task
+         */
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        protected void compute() {
+            if (endIndexExclusive - startIndexInclusive <= threshold) {
+                double acc = identity;
+                for (int i = startIndexInclusive; i < endIndexExclusive; i++) {
+                    acc = combine.applyAsDouble(acc, map.applyAsDouble(input[i]));
+                }
+                value = acc;
+            } else {
+                final int mid = startIndexInclusive + (endIndexExclusive - startIndexInclusive) / 2;
+                final DoubleReductionTask left = new DoubleReductionTask(startIndexInclusive, mid,
+                        input, identity, map, combine, threshold);
+                final DoubleReductionTask right = new DoubleReductionTask(mid, endIndexExclusive,
+                        input, identity, map, combine, threshold);
+
+                left.fork();
+                right.compute();
+                left.join();
+
+                value = combine.applyAsDouble(left.getValue(), right.getValue());
+            }
+        }
+    }
+
+    /**
+     * Task summing a double-valued function of the index over a range, used
+     * for reductions over several arrays at once such as dot products.
+     */
+    static final class DoubleIndexedTask extends RecursiveAction {
+        /**
+         * Starting index for traversal done by this task.
+         */
+        private final int startIndexInclusive;
+        /**
+         * Ending index for traversal done by this task.
+         */
+        private final int endIndexExclusive;
+        /**
+         * Value contributed by each index.
+         */
+        private final IntToDoubleFunction function;
+        /**
+         * Range size below which this task reduces sequentially.
+         */
+        private final int threshold;
+        /**
+         * Intermediate value produced by this task.
+         */
+        private double value;
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive Set the starting index to begin
+         *                               parallel traversal at.
+         * @param setEndIndexExclusive   Set ending index for parallel traversal.
+         * @param setFunction            Value contributed by each index
+         * @param setThreshold           Sequential threshold
+         */
+        DoubleIndexedTask(final int setStartIndexInclusive,
+                          final int setEndIndexExclusive,
+                          final IntToDoubleFunction setFunction,
+                          final int setThreshold) {
+            this.startIndexInclusive = setStartIndexInclusive;
+            this.endIndexExclusive = setEndIndexExclusive;
+            this.function = setFunction;
+            this.threshold = setThreshold;
+        }
+
+        /**
+         * Getter for the value produced by this task.
+         *
+         * @return Value produced by this task
+         */
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        protected void compute() {
+            if (endIndexExclusive - startIndexInclusive <= threshold) {
+                double acc = 0.0;
+                for (int i = startIndexInclusive; i < endIndexExclusive; i++) {
+                    acc += function.applyAsDouble(i);
+                }
+                value = acc;
+            } else {
+                final int mid = startIndexInclusive + (endIndexExclusive - startIndexInclusive) / 2;
+                final DoubleIndexedTask left = new DoubleIndexedTask(startIndexInclusive, mid,
+                        function, threshold);
+                final DoubleIndexedTask right = new DoubleIndexedTask(mid, endIndexExclusive,
+                        function, threshold);
+
+                left.fork();
+                right.compute();
+                left.join();
+
+                value = left.getValue() + right.getValue();
+            }
+        }
+    }
+
+    /**
+     * Task reducing a range of a double buffer, using absolute reads so that
+     * several tasks can share the buffer without touching its position.
+     */
+    static final class DoubleBufferReductionTask extends RecursiveAction {
+        /**
+         * Starting index for traversal done by this task.
+         */
+        private final int startIndexInclusive;
+        /**
+         * Ending index for traversal done by this task.
+         */
+        private final int endIndexExclusive;
+        /**
+         * Input buffer to reduce.
+         */
+        private final DoubleBuffer input;
+        /**
+         * Identity value of combine.
+         */
+        private final double identity;
+        /**
+         * Transformation applied to each element.
+         */
+        private final DoubleUnaryOperator map;
+        /**
+         * Associative operator folding mapped elements together.
+         */
+        private final DoubleBinaryOperator combine;
+        /**
+         * Range size below which this task reduces sequentially.
+         */
+        private final int threshold;
+        /**
+         * Intermediate value produced by this task.
+         */
+        private double value;
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive Set the starting index to begin
+         *                               parallel traversal at.
+         * @param setEndIndexExclusive   Set ending index for parallel traversal.
+         * @param setInput               Input values
+         * @param setIdentity            Identity value of combine
+         * @param setMap                 Transformation applied to each element
+         * @param setCombine             Operator folding mapped elements
+         * @param setThreshold           Sequential threshold
+         */
+        DoubleBufferReductionTask(final int setStartIndexInclusive,
+                                  final int setEndIndexExclusive,
+                                  final DoubleBuffer setInput,
+                                  final double setIdentity,
+                                  final DoubleUnaryOperator setMap,
+                                  final DoubleBinaryOperator setCombine,
+                                  final int setThreshold) {
+            this.startIndexInclusive = setStartIndexInclusive;
+            this.endIndexExclusive = setEndIndexExclusive;
+            this.input = setInput;
+            this.identity = setIdentity;
+            this.map = setMap;
+            this.combine = setCombine;
+            this.threshold = setThreshold;
+        }
+
+        /**
+         * Getter for the value produced by this task.
+         *
+         * @return Value produced by this task
+         */
+        public double getValue() {
+            return value;
+        }
+
+        @Override
+        protected void compute() {
+            if (endIndexExclusive - startIndexInclusive <= threshold) {
+                double acc = identity;
+                for (int i = startIndexInclusive; i < endIndexExclusive; i++) {
+                    acc = combine.applyAsDouble(acc, map.applyAsDouble(input.get(i)));
+                }
+                value = acc;
+            } else {
+                final int mid = startIndexInclusive + (endIndexExclusive - startIndexInclusive) / 2;
+                final DoubleBufferReductionTask left = new DoubleBufferReductionTask(startIndexInclusive, mid,
+                        input, identity, map, combine, threshold);
+                final DoubleBufferReductionTask right = new DoubleBufferReductionTask(mid, endIndexExclusive,
+                        input, identity, map, combine, threshold);
+
+                left.fork();
+                right.compute();
+                left.join();
+
+                value = combine.applyAsDouble(left.getValue(), right.getValue());
+            }
+        }
+    }
+
+    /**
+     * Task reducing a range of an int array.
+     */
+    static final class IntReductionTask extends RecursiveAction {
+        /**
+         * Starting index for traversal done by this task.
+         */
+        private final int startIndexInclusive;
+        /**
+         * Ending index for traversal done by this task.
+         */
+        private final int endIndexExclusive;
+        /**
+         * Input array to reduce.
+         */
+        private final int[] input;
+        /**
+         * Identity value of combine.
+         */
+        private final int identity;
+        /**
+         * Transformation applied to each element.
+         */
+        private final IntUnaryOperator map;
+        /**
+         * Associative operator folding mapped elements together.
+         */
+        private final IntBinaryOperator combine;
+        /**
+         * Range size below which this task reduces sequentially.
+         */
+        private final int threshold;
+        /**
+         * Intermediate value produced by this task.
+         */
+        private int value;
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive Set the starting index to begin
+         *                               parallel traversal at.
+         * @param setEndIndexExclusive   Set ending index for parallel traversal.
+         * @param setInput               Input values
+         * @param setIdentity            Identity value of combine
+         * @param setMap                 Transformation applied to each element
+         * @param setCombine             Operator folding mapped elements
+         * @param setThreshold           Sequential threshold
+         */
+        IntReductionTask(final int setStartIndexInclusive,
+                         final int setEndIndexExclusive,
+                         final int[] setInput,
+                         final int setIdentity,
+                         final IntUnaryOperator setMap,
+                         final IntBinaryOperator setCombine,
+                         final int setThreshold) {
+            this.startIndexInclusive = setStartIndexInclusive;
+            this.endIndexExclusive = setEndIndexExclusive;
+            this.input = setInput;
+            this.identity = setIdentity;
+            this.map = setMap;
+            this.combine = setCombine;
+            this.threshold = setThreshold;
+        }
+
+        /**
+         * Getter for the value produced by this task.
+         *
+         * @return Value produced by this task
+         */
+        public int getValue() {
+            return value;
+        }
+
+        @Override
+        protected void compute() {
+            if (endIndexExclusive - startIndexInclusive <= threshold) {
+                int acc = identity;
+                for (int i = startIndexInclusive; i < endIndexExclusive; i++) {
+                    acc = combine.applyAsInt(acc, map.applyAsInt(input[i]));
+                }
+                value = acc;
+            } else {
+                final int mid = startIndexInclusive + (endIndexExclusive - startIndexInclusive) / 2;
+                final IntReductionTask left = new IntReductionTask(startIndexInclusive, mid,
+                        input, identity, map, combine, threshold);
+                final IntReductionTask right = new IntReductionTask(mid, endIndexExclusive,
+                        input, identity, map, combine, threshold);
+
+                left.fork();
+                right.compute();
+                left.join();
+
+                value = combine.applyAsInt(left.getValue(), right.getValue());
+            }
+        }
+    }
+
+    /**
+     * Task reducing a range of a long array.
+     */
+    static final class LongReductionTask extends RecursiveAction {
+        /**
+         * Starting index for traversal done by this task.
+         */
+        private final int startIndexInclusive;
+        /**
+         * Ending index for traversal done by this task.
+         */
+        private final int endIndexExclusive;
+        /**
+         * Input array to reduce.
+         */
+        private final long[] input;
+        /**
+         * Identity value of combine.
+         */
+        private final long identity;
+        /**
+         * Transformation applied to each element.
+         */
+        private final LongUnaryOperator map;
+        /**
+         * Associative operator folding mapped elements together.
+         */
+        private final LongBinaryOperator combine;
+        /**
+         * Range size below which this task reduces sequentially.
+         */
+        private final int threshold;
+        /**
+         * Intermediate value produced by this task.
+         */
+        private long value;
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive Set the starting index to begin
+         *                               parallel traversal at.
+         * @param setEndIndexExclusive   Set ending index for parallel traversal.
+         * @param setInput               Input values
+         * @param setIdentity            Identity value of combine
+         * @param setMap                 Transformation applied to each element
+         * @param setCombine             Operator folding mapped elements
+         * @param setThreshold           Sequential threshold
+         */
+        LongReductionTask(final int setStartIndexInclusive,
+                          final int setEndIndexExclusive,
+                          final long[] setInput,
+                          final long setIdentity,
+                          final LongUnaryOperator setMap,
+                          final LongBinaryOperator setCombine,
+                          final int setThreshold) {
+            this.startIndexInclusive = setStartIndexInclusive;
+            this.endIndexExclusive = setEndIndexExclusive;
+            this.input = setInput;
+            this.identity = setIdentity;
+            this.map = setMap;
+            this.combine = setCombine;
+            this.threshold = setThreshold;
+        }
+
+        /**
+         * Getter for the value produced by this task.
+         *
+         * @return Value produced by this task
+         */
+        public long getValue() {
+            return value;
+        }
+
+        @Override
+        protected void compute() {
+            if (endIndexExclusive - startIndexInclusive <= threshold) {
+                long acc = identity;
+                for (int i = startIndexInclusive; i < endIndexExclusive; i++) {
+                    acc = combine.applyAsLong(acc, map.applyAsLong(input[i]));
+                }
+                value = acc;
+            } else {
+                final int mid = startIndexInclusive + (endIndexExclusive - startIndexInclusive) / 2;
+                final LongReductionTask left = new LongReductionTask(startIndexInclusive, mid,
+                        input, identity, map, combine, threshold);
+                final LongReductionTask right = new LongReductionTask(mid, endIndexExclusive,
+                        input, identity, map, combine, threshold);
+
+                left.fork();
+                right.compute();
+                left.join();
+
+                value = combine.applyAsLong(left.getValue(), right.getValue());
+            }
+        }
+    }
+}
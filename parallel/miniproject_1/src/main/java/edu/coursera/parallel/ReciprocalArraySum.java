@@ -1,9 +1,23 @@
 package edu.coursera.parallel;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinTask;
-import java.util.concurrent.RecursiveAction;
+import java.util.function.DoubleUnaryOperator;
+
+import edu.coursera.parallel.ParallelReduction.AdaptiveRangeSumTask;
+import edu.coursera.parallel.ParallelReduction.DoubleBufferReductionTask;
+import edu.coursera.parallel.ParallelReduction.DoubleReductionTask;
+import edu.coursera.parallel.ParallelReduction.RangeSumTask;
 
 /**
  * Class wrapping methods for implementing reciprocal array sum in parallel.
@@ -33,6 +47,23 @@ public final class ReciprocalArraySum {
         return sum;
     }
 
+    /**
+     * Sequentially compute the sum of the reciprocal values for a given array
+     * using the given summation mode. In COMPENSATED mode the result is
+     * bit-identical to parArraySum and parManyTaskArraySum in the same mode.
+     *
+     * @param input Input array
+     * @param mode  Summation strategy to use
+     * @return The sum of the reciprocals of the array input
+     */
+    protected static double seqArraySum(final double[] input,
+                                        final SummationMode mode) {
+        if (mode == SummationMode.COMPENSATED) {
+            return ParallelReduction.compensatedSum(input, RECIPROCAL, 1);
+        }
+        return seqArraySum(input);
+    }
+
     /**
      * Computes the size of each chunk, given the number of chunks to create
      * across a given number of elements.
@@ -81,78 +112,93 @@ public final class ReciprocalArraySum {
     }
 
     /**
-     * This class stub can be filled in to implement the body of each task
-     * created to perform reciprocal array sum in parallel.
+     * Largest number of bytes mapped from a file at once. A single
+     * MappedByteBuffer is limited to Integer.MAX_VALUE bytes, so larger files
+     * are reduced window by window. Kept a multiple of Double.BYTES so that no
+     * element straddles two windows.
      */
-    private static class ReciprocalArraySumTask extends RecursiveAction {
-        /**
-         * Threshold to switch from recursive to sequential
-         */
-        private static final int THRESHOLD = 1000;
-        /**
-         * Starting index for traversal done by this task.
-         */
-        private final int startIndexInclusive;
-        /**
-         * Ending index for traversal done by this task.
-         */
-        private final int endIndexExclusive;
-        /**
-         * Input array to reciprocal sum.
-         */
-        private final double[] input;
+    static final long MAX_MAPPED_BYTES = (Integer.MAX_VALUE / Double.BYTES) * (long) Double.BYTES;
+
+    /**
+     * Maps each element to its reciprocal, the per-element transformation of
+     * every reciprocal sum in this class.
+     */
+    static final DoubleUnaryOperator RECIPROCAL = x -> 1 / x;
+
+    /**
+     * The sequential kernels available for the leaves of the parallel
+     * reciprocal sums.
+     */
+    public enum LeafKernel {
         /**
-         * Intermediate value produced by this task.
+         * One accumulator updated in element order, as in seqArraySum. Each
+         * addition waits on the previous one, so the divisions cannot overlap.
          */
-        private double value;
-
+        SCALAR {
+            @Override
+            double sum(final double[] input, final int startIndexInclusive,
+                       final int endIndexExclusive) {
+                double sum = 0;
+                for (int i = startIndexInclusive; i < endIndexExclusive; i++) {
+                    sum += 1 / input[i];
+                }
+                return sum;
+            }
+        },
         /**
-         * Constructor.
-         *
-         * @param setStartIndexInclusive Set the starting index to begin
-         *                               parallel traversal at.
-         * @param setEndIndexExclusive   Set ending index for parallel traversal.
-         * @param setInput               Input values
+         * Four independent accumulators over interleaved elements, merged at
+         * the end. Breaking the dependency chain lets the CPU keep several
+         * divisions in flight at once. The different association order means
+         * results may differ from SCALAR in the last bits.
          */
-        ReciprocalArraySumTask(final int setStartIndexInclusive,
-                               final int setEndIndexExclusive,
-                               final double[] setInput) {
-            this.startIndexInclusive = setStartIndexInclusive;
-            this.endIndexExclusive = setEndIndexExclusive;
-            this.input = setInput;
-        }
+        UNROLLED {
+            @Override
+            double sum(final double[] input, final int startIndexInclusive,
+                       final int endIndexExclusive) {
+                double sum0 = 0;
+                double sum1 = 0;
+                double sum2 = 0;
+                double sum3 = 0;
+                int i = startIndexInclusive;
+                for (; i + 3 < endIndexExclusive; i += 4) {
+                    sum0 += 1 / input[i];
+                    sum1 += 1 / input[i + 1];
+                    sum2 += 1 / input[i + 2];
+                    sum3 += 1 / input[i + 3];
+                }
+                for (; i < endIndexExclusive; i++) {
+                    sum0 += 1 / input[i];
+                }
+                return (sum0 + sum1) + (sum2 + sum3);
+            }
+        };
 
         /**
-         * Getter for the value produced by this task.
+         * Sequentially sums the reciprocals of a range of the input.
          *
-         * @return Value produced by this task
+         * @param input               Input array
+         * @param startIndexInclusive Starting index of the range
+         * @param endIndexExclusive   Ending index of the range
+         * @return The sum of the reciprocals in the range
          */
-        public double getValue() {
-            return value;
-        }
-
-        @Override
-        protected void compute() {
-            if (endIndexExclusive < startIndexInclusive) {
-                value = 0;
-            } else if (endIndexExclusive == startIndexInclusive) {
-                value = input[startIndexInclusive];
-            } else if (endIndexExclusive - startIndexInclusive < THRESHOLD) {
-                for (int i = startIndexInclusive; i < endIndexExclusive; i++) {
-                    value += 1 / input[i];
-                }
-            } else {
-                final int mid = startIndexInclusive + (endIndexExclusive - startIndexInclusive) / 2;
-                final ReciprocalArraySumTask left = new ReciprocalArraySumTask(startIndexInclusive, mid, input);
-                final ReciprocalArraySumTask right = new ReciprocalArraySumTask(mid, endIndexExclusive, input);
-
-                left.fork();
-                right.compute();
-                left.join();
+        abstract double sum(double[] input, int startIndexInclusive,
+                            int endIndexExclusive);
+    }
 
-                value = left.getValue() + right.getValue();
-            }
-        }
+    /**
+     * Creates a task computing the reciprocal sum of a range of the input.
+     *
+     * @param startIndexInclusive Starting index of the range
+     * @param endIndexExclusive   Ending index of the range
+     * @param input               Input array
+     * @return The task summing the reciprocals in the given range
+     */
+    private static DoubleReductionTask createReciprocalSumTask(
+            final int startIndexInclusive, final int endIndexExclusive,
+            final double[] input) {
+        return new DoubleReductionTask(startIndexInclusive, endIndexExclusive,
+                input, 0.0, RECIPROCAL, Double::sum,
+                ParallelReduction.getThreshold(input.length));
     }
 
     /**
@@ -168,8 +214,8 @@ public final class ReciprocalArraySum {
         assert input.length % 2 == 0;
 
         final int mid = input.length / 2;
-        ReciprocalArraySumTask left = new ReciprocalArraySumTask(0, mid, input);
-        ReciprocalArraySumTask right = new ReciprocalArraySumTask(mid, input.length, input);
+        DoubleReductionTask left = createReciprocalSumTask(0, mid, input);
+        DoubleReductionTask right = createReciprocalSumTask(mid, input.length, input);
         ForkJoinTask.invokeAll(left, right);
         return left.getValue() + right.getValue();
     }
@@ -186,9 +232,9 @@ public final class ReciprocalArraySum {
      */
     protected static double parManyTaskArraySum(final double[] input,
                                                 final int numTasks) {
-        List<ReciprocalArraySumTask> tasks = new ArrayList<>();
+        List<DoubleReductionTask> tasks = new ArrayList<>();
         for (int i = 0; i < numTasks; i++) {
-            ReciprocalArraySumTask task = new ReciprocalArraySumTask(
+            DoubleReductionTask task = createReciprocalSumTask(
                     getChunkStartInclusive(i, numTasks, input.length),
                     getChunkEndExclusive(i, numTasks, input.length),
                     input
@@ -198,7 +244,205 @@ public final class ReciprocalArraySum {
         ForkJoinTask.invokeAll(tasks);
 
         double sum = 0;
-        for (ReciprocalArraySumTask t : tasks) {
+        for (DoubleReductionTask t : tasks) {
+            sum += t.getValue();
+        }
+        return sum;
+    }
+
+    /**
+     * Compute the reciprocal sum with two tasks using the given summation
+     * mode.
+     *
+     * @param input Input array
+     * @param mode  Summation strategy to use
+     * @return The sum of the reciprocals of the array input
+     */
+    protected static double parArraySum(final double[] input,
+                                        final SummationMode mode) {
+        if (mode == SummationMode.COMPENSATED) {
+            return ParallelReduction.compensatedSum(input, RECIPROCAL, 2);
+        }
+        return parArraySum(input);
+    }
+
+    /**
+     * Compute the reciprocal sum with a set number of tasks using the given
+     * summation mode. In COMPENSATED mode the result does not depend on
+     * numTasks.
+     *
+     * @param input    Input array
+     * @param numTasks The number of tasks to create
+     * @param mode     Summation strategy to use
+     * @return The sum of the reciprocals of the array input
+     */
+    protected static double parManyTaskArraySum(final double[] input,
+                                                final int numTasks,
+                                                final SummationMode mode) {
+        if (mode == SummationMode.COMPENSATED) {
+            return ParallelReduction.compensatedSum(input, RECIPROCAL, numTasks);
+        }
+        return parManyTaskArraySum(input, numTasks);
+    }
+
+    /**
+     * Compute the reciprocal sum with two tasks whose leaves run the given
+     * kernel.
+     *
+     * @param input  Input array
+     * @param kernel Sequential kernel for the leaf ranges
+     * @return The sum of the reciprocals of the array input
+     */
+    protected static double parArraySum(final double[] input,
+                                        final LeafKernel kernel) {
+        return parManyTaskArraySum(input, 2, kernel);
+    }
+
+    /**
+     * Compute the reciprocal sum with a set number of tasks whose leaves run
+     * the given kernel.
+     *
+     * @param input    Input array
+     * @param numTasks The number of tasks to create
+     * @param kernel   Sequential kernel for the leaf ranges
+     * @return The sum of the reciprocals of the array input
+     */
+    protected static double parManyTaskArraySum(final double[] input,
+                                                final int numTasks,
+                                                final LeafKernel kernel) {
+        final int threshold = ParallelReduction.getThreshold(input.length);
+        List<RangeSumTask> tasks = new ArrayList<>();
+        for (int i = 0; i < numTasks; i++) {
+            tasks.add(new RangeSumTask(
+                    getChunkStartInclusive(i, numTasks, input.length),
+                    getChunkEndExclusive(i, numTasks, input.length),
+                    input, kernel::sum, threshold));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        double sum = 0;
+        for (RangeSumTask t : tasks) {
+            sum += t.getValue();
+        }
+        return sum;
+    }
+
+    /**
+     * Compute the reciprocal sum of the remaining elements of a double buffer
+     * with a set number of tasks, chunked the same way as the array version.
+     * Direct and memory-mapped buffers are read in place, without copying
+     * onto the heap. The buffer's position and limit are left unchanged.
+     *
+     * @param input    Input buffer, summed from its position to its limit
+     * @param numTasks The number of tasks to create
+     * @return The sum of the reciprocals of the buffer input
+     */
+    protected static double parManyTaskArraySum(final DoubleBuffer input,
+                                                final int numTasks) {
+        final DoubleBuffer view = input.slice();
+        final int nElements = view.limit();
+        final int threshold = ParallelReduction.getThreshold(nElements);
+        List<DoubleBufferReductionTask> tasks = new ArrayList<>();
+        for (int i = 0; i < numTasks; i++) {
+            tasks.add(new DoubleBufferReductionTask(
+                    getChunkStartInclusive(i, numTasks, nElements),
+                    getChunkEndExclusive(i, numTasks, nElements),
+                    view, 0.0, RECIPROCAL, Double::sum, threshold));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        double sum = 0;
+        for (DoubleBufferReductionTask t : tasks) {
+            sum += t.getValue();
+        }
+        return sum;
+    }
+
+    /**
+     * Compute the reciprocal sum of the remaining elements of a double buffer
+     * using two tasks.
+     *
+     * @param input Input buffer, summed from its position to its limit
+     * @return The sum of the reciprocals of the buffer input
+     */
+    protected static double parArraySum(final DoubleBuffer input) {
+        return parManyTaskArraySum(input, 2);
+    }
+
+    /**
+     * Compute the reciprocal sum of the doubles stored in a byte buffer, such
+     * as a MappedByteBuffer over a binary file, with a set number of tasks.
+     *
+     * @param input    Input bytes, read from position to limit
+     * @param order    Byte order the doubles were written in
+     * @param numTasks The number of tasks to create
+     * @return The sum of the reciprocals of the doubles in input
+     */
+    protected static double parManyTaskArraySum(final ByteBuffer input,
+                                                final ByteOrder order,
+                                                final int numTasks) {
+        return parManyTaskArraySum(input.duplicate().order(order).asDoubleBuffer(), numTasks);
+    }
+
+    /**
+     * Compute the reciprocal sum of a binary file of doubles with a set
+     * number of tasks. The file is memory-mapped rather than read onto the
+     * heap, one window of at most MAX_MAPPED_BYTES at a time, so files larger
+     * than both the heap and a single mapping can be summed.
+     *
+     * @param file     Path of the file to sum
+     * @param order    Byte order the doubles were written in
+     * @param numTasks The number of tasks to create for each window
+     * @return The sum of the reciprocals of the doubles in the file
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    protected static double parFileArraySum(final Path file,
+                                            final ByteOrder order,
+                                            final int numTasks)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size % Double.BYTES != 0) {
+                throw new IllegalArgumentException("File size " + size
+                        + " is not a multiple of " + Double.BYTES + " bytes: " + file);
+            }
+
+            double sum = 0;
+            for (long offset = 0; offset < size; offset += MAX_MAPPED_BYTES) {
+                final long length = Math.min(MAX_MAPPED_BYTES, size - offset);
+                final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                sum += parManyTaskArraySum(window, order, numTasks);
+            }
+            return sum;
+        }
+    }
+
+    /**
+     * Compute the reciprocal sum on a caller-supplied pool, starting from
+     * numTasks chunks that each split further on demand. Keeping the
+     * reduction in its own pool isolates it from other work on the common
+     * pool, and splitting based on ForkJoinTask.getSurplusQueuedTaskCount
+     * rebalances the work when some workers run slower than others.
+     *
+     * @param input    Input array
+     * @param numTasks The number of initial chunks to create
+     * @param pool     The pool to run the reduction in
+     * @return The sum of the reciprocals of the array input
+     */
+    protected static double parManyTaskArraySum(final double[] input,
+                                                final int numTasks,
+                                                final ForkJoinPool pool) {
+        List<AdaptiveRangeSumTask> tasks = new ArrayList<>();
+        for (int i = 0; i < numTasks; i++) {
+            tasks.add(new AdaptiveRangeSumTask(
+                    getChunkStartInclusive(i, numTasks, input.length),
+                    getChunkEndExclusive(i, numTasks, input.length),
+                    input, LeafKernel.SCALAR::sum, ParallelReduction.MIN_THRESHOLD));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+        double sum = 0;
+        for (AdaptiveRangeSumTask t : tasks) {
             sum += t.getValue();
         }
         return sum;
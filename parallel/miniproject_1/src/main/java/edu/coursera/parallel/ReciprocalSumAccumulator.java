@@ -0,0 +1,117 @@
+package edu.coursera.parallel;
+
+import java.util.concurrent.ForkJoinPool;
+
+import edu.coursera.parallel.ParallelReduction.DoubleReductionTask;
+
+/**
+ * Incremental reciprocal sum over input that arrives in chunks. Each chunk is
+ * reduced in parallel on the common Fork Join pool as soon as it is accepted
+ * and only its partial sum is kept, so memory use does not grow with the
+ * total input. Partial sums are merged with compensated summation, keeping
+ * the final value close to seqArraySum over the concatenated chunks.
+ * <p>
+ * Chunks may be accepted from several threads at once, and the running total
+ * can be read at any time.
+ */
+public final class ReciprocalSumAccumulator {
+    /**
+     * Running sum of the partial sums merged so far.
+     */
+    private double sum;
+    /**
+     * Low-order bits lost while adding partial sums to sum.
+     */
+    private double compensation;
+    /**
+     * Number of elements accepted so far.
+     */
+    private long count;
+
+    /**
+     * Default constructor, starting from an empty input.
+     */
+    public ReciprocalSumAccumulator() {
+    }
+
+    /**
+     * Adds the reciprocals of all elements of a chunk to the running total.
+     * The chunk is not retained and may be reused by the caller afterwards.
+     *
+     * @param chunk The next chunk of input
+     */
+    public void accept(final double[] chunk) {
+        accept(chunk, 0, chunk.length);
+    }
+
+    /**
+     * Adds the reciprocals of a range of a chunk to the running total. The
+     * chunk is not retained and may be reused by the caller afterwards.
+     *
+     * @param chunk               The array holding the next chunk of input
+     * @param startIndexInclusive Starting index of the chunk in the array
+     * @param endIndexExclusive   Ending index of the chunk in the array
+     */
+    public void accept(final double[] chunk, final int startIndexInclusive,
+                       final int endIndexExclusive) {
+        if (startIndexInclusive < 0 || endIndexExclusive > chunk.length
+                || startIndexInclusive > endIndexExclusive) {
+            throw new IndexOutOfBoundsException("Invalid chunk range ["
+                    + startIndexInclusive + ", " + endIndexExclusive
+                    + ") for array of length " + chunk.length);
+        }
+        final DoubleReductionTask task = new DoubleReductionTask(
+                startIndexInclusive, endIndexExclusive, chunk, 0.0,
+                ReciprocalArraySum.RECIPROCAL, Double::sum,
+                ParallelReduction.getThreshold(endIndexExclusive - startIndexInclusive));
+        ForkJoinPool.commonPool().invoke(task);
+        merge(task.getValue(), endIndexExclusive - startIndexInclusive);
+    }
+
+    /**
+     * Merges the partial sum of one chunk into the running total, using
+     * Neumaier's compensated summation.
+     *
+     * @param partialSum The reciprocal sum of the chunk
+     * @param nElements  The number of elements in the chunk
+     */
+    private synchronized void merge(final double partialSum,
+                                    final int nElements) {
+        final double t = sum + partialSum;
+        if (Math.abs(sum) >= Math.abs(partialSum)) {
+            compensation += (sum - t) + partialSum;
+        } else {
+            compensation += (partialSum - t) + sum;
+        }
+        sum = t;
+        count += nElements;
+    }
+
+    /**
+     * Getter for the reciprocal sum of all input accepted so far.
+     *
+     * @return The running reciprocal sum
+     */
+    public synchronized double getSum() {
+        return sum + compensation;
+    }
+
+    /**
+     * Getter for the number of elements accepted so far.
+     *
+     * @return The number of elements summed
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * Discards everything accepted so far, so the accumulator can be reused
+     * for a new input.
+     */
+    public synchronized void reset() {
+        sum = 0;
+        compensation = 0;
+        count = 0;
+    }
+}
@@ -0,0 +1,19 @@
+package edu.coursera.parallel;
+
+/**
+ * The floating point summation strategies supported by the parallel sums.
+ */
+public enum SummationMode {
+    /**
+     * Plain left-to-right accumulation within each task. Fastest, but the
+     * rounding error depends on how the input is split across tasks, so
+     * results may differ in the last bits between task counts.
+     */
+    NAIVE,
+    /**
+     * Kahan-Babuska (Neumaier) compensated summation over fixed-size blocks,
+     * with the block sums combined pairwise in a fixed order. The result is
+     * bit-identical for any number of tasks, including a single one.
+     */
+    COMPENSATED
+}
@@ -0,0 +1,92 @@
+package edu.coursera.parallel;
+
+import junit.framework.TestCase;
+
+import java.util.Random;
+
+public class ParallelReductionTest extends TestCase {
+    // Relative tolerance for comparing parallel and sequential results, override with -Dreduction.tolerance
+    final static private double TOLERANCE = Double.parseDouble(System.getProperty("reduction.tolerance",
+            String.valueOf(ParallelReduction.DEFAULT_TOLERANCE)));
+
+    private double[] createDoubleArray(final int N) {
+        final double[] input = new double[N];
+        final Random rand = new Random(314);
+
+        for (int i = 0; i < N; i++) {
+            input[i] = 1 + rand.nextInt(99);
+        }
+
+        return input;
+    }
+
+    private void assertWithinTolerance(final double expected, final double actual) {
+        final String errMsg = String.format("Mismatch in result, expected = %f, computed = %f, absolute error = %e",
+                expected, actual, Math.abs(expected - actual));
+        assertTrue(errMsg, ParallelReduction.isWithinTolerance(expected, actual, TOLERANCE));
+    }
+
+    /**
+     * Test that the reduction engine computes the same reciprocal sum as seqArraySum.
+     */
+    public void testReciprocalSum() {
+        final double[] input = createDoubleArray(2_000_000);
+        final double ref = ReciprocalArraySum.seqArraySum(input);
+        assertWithinTolerance(ref, ParallelReduction.sum(input, ReciprocalArraySum.RECIPROCAL));
+    }
+
+    /**
+     * Test sum of squares, dot product and norm against sequential loops.
+     */
+    public void testSumOfSquaresDotAndNorm() {
+        final double[] a = createDoubleArray(1_000_003);
+        final double[] b = createDoubleArray(1_000_003);
+        double squares = 0;
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            squares += a[i] * a[i];
+            dot += a[i] * b[i];
+        }
+        assertWithinTolerance(squares, ParallelReduction.sum(a, x -> x * x));
+        assertWithinTolerance(dot, ParallelReduction.dot(a, b));
+        assertWithinTolerance(Math.sqrt(squares), ParallelReduction.norm(a));
+    }
+
+    /**
+     * Test the int and long variants, including a non-sum combine operator.
+     */
+    public void testIntAndLongReductions() {
+        final int N = 3_000_001;
+        final int[] ints = new int[N];
+        final long[] longs = new long[N];
+        final Random rand = new Random(42);
+        int intMax = Integer.MIN_VALUE;
+        long longSum = 0;
+        for (int i = 0; i < N; i++) {
+            ints[i] = rand.nextInt();
+            longs[i] = rand.nextInt(1000);
+            intMax = Math.max(intMax, ints[i]);
+            longSum += longs[i] * 3;
+        }
+        assertEquals(intMax, ParallelReduction.reduce(ints, Integer.MIN_VALUE, x -> x, Math::max));
+        assertEquals(longSum, ParallelReduction.reduce(longs, 0L, x -> x * 3, Long::sum));
+    }
+
+    /**
+     * Test that empty and tiny inputs reduce to the identity and the sequential result.
+     */
+    public void testSmallInputs() {
+        assertEquals(0.0, ParallelReduction.sum(new double[0], ReciprocalArraySum.RECIPROCAL), 0.0);
+        assertEquals(0.5, ParallelReduction.sum(new double[] {2.0}, ReciprocalArraySum.RECIPROCAL), 0.0);
+    }
+
+    /**
+     * Test that the threshold adapts to input size and pool parallelism.
+     */
+    public void testAdaptiveThreshold() {
+        assertEquals(ParallelReduction.MIN_THRESHOLD, ParallelReduction.getThreshold(10, 8));
+        assertEquals(100_000_000 / (8 * ParallelReduction.LEAF_TASKS_PER_WORKER),
+                ParallelReduction.getThreshold(100_000_000, 8));
+        assertTrue(ParallelReduction.getThreshold(100_000_000, 16) < ParallelReduction.getThreshold(100_000_000, 8));
+    }
+}
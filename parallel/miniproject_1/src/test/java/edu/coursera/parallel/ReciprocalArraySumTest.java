@@ -2,7 +2,16 @@ package edu.coursera.parallel;
 
 import junit.framework.TestCase;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 public class ReciprocalArraySumTest extends TestCase {
     // Number of times to repeat each test, for consistent timing results.
@@ -158,4 +167,148 @@ public class ReciprocalArraySumTest extends TestCase {
         System.out.println("Speedup: " + speedup);
         assertTrue(errMsg, speedup >= minimalExpectedSpeedup);
     }
+
+    /**
+     * Test that compensated summation gives bit-identical results for every number of tasks.
+     */
+    public void testCompensatedIsDeterministic() {
+        final int N = 10_000_001;
+        final double[] input = createArray(N);
+        final double correct = seqArraySum(input);
+        final double compensated = ReciprocalArraySum.seqArraySum(input, SummationMode.COMPENSATED);
+        final String errMsg = String.format("Mismatch in result for N = %d, expected = %f, computed = %f", N,
+                correct, compensated);
+        assertTrue(errMsg, Math.abs(compensated - correct) < 1E-2);
+
+        assertEquals(compensated, ReciprocalArraySum.parArraySum(input, SummationMode.COMPENSATED));
+        for (int ntasks = 1; ntasks <= 4 * getNCores() + 3; ntasks++) {
+            final double sum = ReciprocalArraySum.parManyTaskArraySum(input, ntasks, SummationMode.COMPENSATED);
+            assertEquals("Compensated sum differs with " + ntasks + " tasks", compensated, sum);
+        }
+    }
+
+    /**
+     * Test that both leaf kernels compute the reciprocal sum, and report their relative throughput.
+     */
+    public void testLeafKernels() {
+        final int N = 20_000_000;
+        final int ncores = getNCores();
+        final double[] input = createArray(N);
+        final double correct = seqArraySum(input);
+
+        final long[] times = new long[ReciprocalArraySum.LeafKernel.values().length];
+        for (ReciprocalArraySum.LeafKernel kernel : ReciprocalArraySum.LeafKernel.values()) {
+            final double sum = ReciprocalArraySum.parManyTaskArraySum(input, ncores, kernel);
+            final String errMsg = String.format("Mismatch in result for %s kernel, expected = %f, computed = %f",
+                    kernel, correct, sum);
+            assertTrue(errMsg, Math.abs(sum - correct) < 1E-2);
+
+            final long startTime = System.currentTimeMillis();
+            for (int r = 0; r < REPEATS / 4; r++) {
+                ReciprocalArraySum.parManyTaskArraySum(input, ncores, kernel);
+            }
+            times[kernel.ordinal()] = System.currentTimeMillis() - startTime;
+        }
+        System.out.println("Kernel speedup (SCALAR -> UNROLLED): " + (double) times[0] / (double) times[1]);
+    }
+
+    /**
+     * Test that direct buffers and memory-mapped files are summed in place with the same result as the array.
+     */
+    public void testBufferAndFileSums() throws IOException {
+        final int N = 3_000_000;
+        final int ncores = getNCores();
+        final double[] input = createArray(N);
+        final double correct = seqArraySum(input);
+
+        final ByteBuffer bytes = ByteBuffer.allocateDirect(N * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asDoubleBuffer().put(input);
+        final DoubleBuffer doubles = bytes.asDoubleBuffer();
+        assertTrue(Math.abs(ReciprocalArraySum.parManyTaskArraySum(doubles, ncores) - correct) < 1E-2);
+        assertTrue(Math.abs(ReciprocalArraySum.parArraySum(doubles) - correct) < 1E-2);
+        assertEquals(0, doubles.position());
+
+        final Path file = Files.createTempFile("reciprocal", ".bin");
+        try {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(bytes);
+            }
+            final double sum = ReciprocalArraySum.parFileArraySum(file, ByteOrder.LITTLE_ENDIAN, ncores);
+            final String errMsg = String.format("Mismatch in result for mapped file, expected = %f, computed = %f",
+                    correct, sum);
+            assertTrue(errMsg, Math.abs(sum - correct) < 1E-2);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test that feeding an array in chunks of varying size, including from several threads, gives the sum of the
+     * whole array.
+     */
+    public void testStreamingAccumulator() throws InterruptedException {
+        final int N = 5_000_000;
+        final double[] input = createArray(N);
+        final double correct = seqArraySum(input);
+
+        final ReciprocalSumAccumulator accumulator = new ReciprocalSumAccumulator();
+        final Random rand = new Random(7);
+        final double[] block = new double[100_000];
+        int start = 0;
+        while (start < N) {
+            final int len = Math.min(1 + rand.nextInt(block.length), N - start);
+            System.arraycopy(input, start, block, 0, len);
+            accumulator.accept(block, 0, len);
+            start += len;
+
+            final double partial = accumulator.getSum();
+            assertTrue("Running total must be readable mid-stream", partial > 0);
+        }
+        assertEquals(N, accumulator.getCount());
+        String errMsg = String.format("Mismatch in streamed result, expected = %f, computed = %f", correct,
+                accumulator.getSum());
+        assertTrue(errMsg, Math.abs(accumulator.getSum() - correct) < 1E-2);
+
+        accumulator.reset();
+        final int nthreads = 4;
+        final Thread[] threads = new Thread[nthreads];
+        for (int t = 0; t < nthreads; t++) {
+            final int from = (int) ((long) N * t / nthreads);
+            final int to = (int) ((long) N * (t + 1) / nthreads);
+            threads[t] = new Thread(() -> {
+                for (int i = from; i < to; i += 10_000) {
+                    accumulator.accept(input, i, Math.min(i + 10_000, to));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(N, accumulator.getCount());
+        errMsg = String.format("Mismatch in concurrently streamed result, expected = %f, computed = %f", correct,
+                accumulator.getSum());
+        assertTrue(errMsg, Math.abs(accumulator.getSum() - correct) < 1E-2);
+    }
+
+    /**
+     * Test that adaptive splitting on a caller-supplied pool computes the reciprocal sum for any chunk count.
+     */
+    public void testAdaptiveSplittingOnCustomPool() {
+        final int N = 10_000_000;
+        final double[] input = createArray(N);
+        final double correct = seqArraySum(input);
+
+        final ForkJoinPool pool = new ForkJoinPool(Math.max(2, getNCores()));
+        try {
+            for (int ntasks : new int[] {1, 2, getNCores(), 4 * getNCores() + 1}) {
+                final double sum = ReciprocalArraySum.parManyTaskArraySum(input, ntasks, pool);
+                final String errMsg = String.format("Mismatch in result for %d tasks, expected = %f, computed = %f",
+                        ntasks, correct, sum);
+                assertTrue(errMsg, Math.abs(sum - correct) < 1E-2);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package edu.coursera.parallel;
+
+/**
+ * A count-min sketch: an approximate frequency table of fixed size, however
+ * many distinct items are counted. Each item is hashed to one counter in each
+ * of depth rows of width counters. Its estimated count is the smallest of
+ * those counters, which never underestimates and overestimates by at most
+ * e * total / width with probability 1 - exp(-depth).
+ * <p>
+ * Sketches with the same dimensions can be merged by adding their counters,
+ * so each thread can fill its own sketch and combine them at the end.
+ */
+public final class CountMinSketch {
+    /**
+     * Largest supported number of counters per row.
+     */
+    static final int MAX_WIDTH = 1 << 24;
+    /**
+     * Number of rows, i.e. independent hash functions.
+     */
+    private final int depth;
+    /**
+     * Number of counters per row, a power of two.
+     */
+    private final int width;
+    /**
+     * Counters of all rows, row after row.
+     */
+    private final long[] counters;
+    /**
+     * Total of all counts added.
+     */
+    private long total;
+
+    /**
+     * Constructor.
+     *
+     * @param setDepth Number of hash functions
+     * @param setWidth Number of counters per hash function, rounded up to a
+     *                 power of two
+     */
+    public CountMinSketch(final int setDepth, final int setWidth) {
+        if (setDepth < 1 || setWidth < 1 || setWidth > MAX_WIDTH) {
+            throw new IllegalArgumentException("Invalid sketch dimensions "
+                    + setDepth + "x" + setWidth);
+        }
+        this.depth = setDepth;
+        int w = 1;
+        while (w < setWidth) {
+            w <<= 1;
+        }
+        this.width = w;
+        this.counters = new long[depth * width];
+    }
+
+    /**
+     * Computes the column of an item in a row.
+     *
+     * @param hash Hash code of the item
+     * @param row  Row index
+     * @return The counter index within the row
+     */
+    private int column(final int hash, final int row) {
+        int h = hash * 0x9E3779B9 + row * 0x85EBCA6B;
+        h ^= h >>> 16;
+        h *= 0x7FEB352D;
+        h ^= h >>> 15;
+        return h & (width - 1);
+    }
+
+    /**
+     * Counts one more occurrence of an item.
+     *
+     * @param item The item to count
+     * @return The estimated count of item, including this occurrence
+     */
+    public long add(final Object item) {
+        final int hash = item.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            final int i = row * width + column(hash, row);
+            estimate = Math.min(estimate, ++counters[i]);
+        }
+        total++;
+        return estimate;
+    }
+
+    /**
+     * Estimates how many times an item was added.
+     *
+     * @param item The item to look up
+     * @return An upper bound on the count of item
+     */
+    public long estimate(final Object item) {
+        final int hash = item.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Adds the counts of another sketch of the same dimensions to this one.
+     *
+     * @param other The sketch to merge in
+     */
+    public void merge(final CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge a " + other.depth
+                    + "x" + other.width + " sketch into a " + depth + "x"
+                    + width + " sketch");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        total += other.total;
+    }
+
+    /**
+     * Get the total of all counts added.
+     *
+     * @return The number of items added.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Get the number of counters per row.
+     *
+     * @return The width of this sketch.
+     */
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,232 @@
+package edu.coursera.parallel;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Running answers to the StudentAnalytics queries over a roster that changes
+ * over time. Instead of rescanning every student on each query, the
+ * aggregates are updated by each insert, update and delete:
+ * <ul>
+ * <li>the age sum and count of current students are striped adders,</li>
+ * <li>the first names of inactive students are counted in a concurrent map,
+ * with a skip list ordering the names by count,</li>
+ * <li>the number of failed students older than 20 is a striped adder.</li>
+ * </ul>
+ * Changes may be applied from many threads at once. A query running
+ * concurrently with changes may see some of them only partially applied;
+ * once all changes have completed, the most common name and the failed
+ * count are exact for the current roster. The average age comes from a
+ * floating point sum of every age added and retracted, so it carries
+ * rounding error that depends on the order of the changes and may differ
+ * slightly from a fresh computation. The average age and the failed count
+ * are answered in O(1) and the most common name in O(log n) for n distinct
+ * names.
+ */
+public final class IncrementalStudentAnalytics {
+    /**
+     * Orders name counts by count, then by name in reverse, so that the last
+     * of the ranking is the most common name and, of tied names, the one
+     * that sorts first, as in StudentAnalytics.
+     */
+    private static final Comparator<NameCount> BY_COUNT =
+            Comparator.comparingLong((NameCount c) -> c.count)
+                    .thenComparing(c -> c.name, Comparator.reverseOrder());
+
+    /**
+     * The students in the roster, by id.
+     */
+    private final ConcurrentHashMap<Long, Student> students = new ConcurrentHashMap<>();
+    /**
+     * Sum of the ages of current students, up to the rounding of the ages
+     * added and retracted so far.
+     */
+    private final DoubleAdder enrolledAgeSum = new DoubleAdder();
+    /**
+     * Number of current students.
+     */
+    private final LongAdder enrolledCount = new LongAdder();
+    /**
+     * Number of inactive students with each first name, without zero counts.
+     */
+    private final ConcurrentHashMap<String, NameCount> nameCounts = new ConcurrentHashMap<>();
+    /**
+     * The values of nameCounts, ordered by count.
+     */
+    private final ConcurrentSkipListSet<NameCount> nameRanking = new ConcurrentSkipListSet<>(BY_COUNT);
+    /**
+     * Number of inactive students older than 20 with a failing grade.
+     */
+    private final LongAdder failedCount = new LongAdder();
+
+    /**
+     * Default constructor, starting from an empty roster.
+     */
+    public IncrementalStudentAnalytics() {
+    }
+
+    /**
+     * Constructor, loading an initial roster in parallel. Student i of the
+     * array is given id i.
+     *
+     * @param studentArray Student data for the class.
+     */
+    public IncrementalStudentAnalytics(final Student[] studentArray) {
+        IntStream.range(0, studentArray.length)
+                .parallel()
+                .forEach(i -> insert(i, studentArray[i]));
+    }
+
+    /**
+     * Adds a new student to the roster.
+     *
+     * @param id      Id of the new student
+     * @param student The student
+     * @throws IllegalArgumentException if a student with this id already exists
+     */
+    public void insert(final long id, final Student student) {
+        if (students.putIfAbsent(id, student) != null) {
+            throw new IllegalArgumentException("Student " + id + " already exists");
+        }
+        apply(student, 1);
+    }
+
+    /**
+     * Replaces the record of a student in the roster.
+     *
+     * @param id      Id of the student
+     * @param student The new record of the student
+     * @return The previous record of the student
+     * @throws IllegalArgumentException if there is no student with this id
+     */
+    public Student update(final long id, final Student student) {
+        final Student previous = students.replace(id, student);
+        if (previous == null) {
+            throw new IllegalArgumentException("Student " + id + " does not exist");
+        }
+        apply(previous, -1);
+        apply(student, 1);
+        return previous;
+    }
+
+    /**
+     * Removes a student from the roster.
+     *
+     * @param id Id of the student
+     * @return The removed record, or null if there was no student with this id
+     */
+    public Student delete(final long id) {
+        final Student previous = students.remove(id);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        return previous;
+    }
+
+    /**
+     * Get the number of students in the roster.
+     * @return The number of students.
+     */
+    public int size() {
+        return students.size();
+    }
+
+    /**
+     * Get the average age of all actively enrolled students, or 0.0 if no
+     * student is enrolled, up to rounding error.
+     * @return Average age of enrolled students
+     */
+    public double getAverageAgeOfEnrolledStudents() {
+        final long count = enrolledCount.sum();
+        return count == 0 ? 0.0 : enrolledAgeSum.sum() / (double) count;
+    }
+
+    /**
+     * Get the most common first name out of all students that are no longer
+     * active, or null if every student is active.
+     * @return Most common first name of inactive students
+     */
+    public String getMostCommonFirstNameOfInactiveStudents() {
+        final Iterator<NameCount> descending = nameRanking.descendingIterator();
+        return descending.hasNext() ? descending.next().name : null;
+    }
+
+    /**
+     * Get the number of inactive students older than 20 with a failing grade.
+     * @return Number of failed grades from students older than 20 years old.
+     */
+    public int getNumberOfFailedStudentsOlderThan20() {
+        return failedCount.intValue();
+    }
+
+    /**
+     * Adds a student to, or retracts a student from, every aggregate.
+     *
+     * @param s     The student
+     * @param delta 1 to add the student, -1 to retract it
+     */
+    private void apply(final Student s, final int delta) {
+        if (s.checkIsCurrent()) {
+            enrolledAgeSum.add(delta * s.getAge());
+            enrolledCount.add(delta);
+        } else {
+            addNameCount(s.getFirstName(), delta);
+            if (s.getAge() > 20 && s.getGrade() < 65) {
+                failedCount.add(delta);
+            }
+        }
+    }
+
+    /**
+     * Changes the count of a first name. The map entry of the name is locked
+     * while its ranking entry is replaced, so concurrent changes to the same
+     * name are serialized while different names proceed in parallel.
+     *
+     * @param name  The first name
+     * @param delta The change in its count
+     */
+    private void addNameCount(final String name, final int delta) {
+        nameCounts.compute(name, (key, previous) -> {
+            final long count = (previous == null ? 0 : previous.count) + delta;
+            if (previous != null) {
+                nameRanking.remove(previous);
+            }
+            if (count == 0) {
+                return null;
+            }
+            final NameCount next = new NameCount(key, count);
+            nameRanking.add(next);
+            return next;
+        });
+    }
+
+    /**
+     * An immutable count of a first name.
+     */
+    private static final class NameCount {
+        /**
+         * The first name.
+         */
+        private final String name;
+        /**
+         * Number of inactive students with the name.
+         */
+        private final long count;
+
+        /**
+         * Constructor.
+         *
+         * @param setName  The first name
+         * @param setCount Number of inactive students with the name
+         */
+        NameCount(final String setName, final long setCount) {
+            this.name = setName;
+            this.count = setCount;
+        }
+    }
+}
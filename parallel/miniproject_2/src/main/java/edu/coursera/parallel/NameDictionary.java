@@ -0,0 +1,66 @@
+package edu.coursera.parallel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe dictionary assigning dense int ids to names, 0 for the first
+ * distinct name seen, 1 for the next and so on. Encoding names once lets
+ * later passes count and compare them as plain ints. Several threads may
+ * encode names concurrently; each distinct name still gets exactly one id,
+ * but which name gets which id then depends on the interleaving.
+ */
+public final class NameDictionary {
+    /**
+     * Id of every name encoded so far.
+     */
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    /**
+     * Next id to hand out.
+     */
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Default constructor, creating an empty dictionary.
+     */
+    public NameDictionary() {
+    }
+
+    /**
+     * Looks up the id of a name, assigning the next free id to new names.
+     *
+     * @param name The name to encode
+     * @return The id of name
+     */
+    public int encode(final String name) {
+        final Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        return ids.computeIfAbsent(name, k -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Get the number of distinct names encoded so far.
+     *
+     * @return The number of ids handed out.
+     */
+    public int size() {
+        return nextId.get();
+    }
+
+    /**
+     * Builds the inverse mapping, from id to name. Should only be called once
+     * no more names are being encoded.
+     *
+     * @return The names, indexed by id
+     */
+    public String[] toArray() {
+        final String[] names = new String[size()];
+        for (Map.Entry<String, Integer> entry : ids.entrySet()) {
+            names[entry.getValue()] = entry.getKey();
+        }
+        return names;
+    }
+}
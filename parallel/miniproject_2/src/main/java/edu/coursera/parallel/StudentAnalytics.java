@@ -2,6 +2,10 @@ package edu.coursera.parallel;
 
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 import static java.util.Map.Entry.comparingByValue;
 import static java.util.function.Function.identity;
@@ -12,6 +16,21 @@ import static java.util.stream.Collectors.groupingBy;
  * A simple wrapper class for various analytics methods.
  */
 public final class StudentAnalytics {
+    /**
+     * Default number of hash functions of the approximate name counter.
+     */
+    static final int DEFAULT_SKETCH_DEPTH = 4;
+    /**
+     * Default number of counters per hash function of the approximate name
+     * counter.
+     */
+    static final int DEFAULT_SKETCH_WIDTH = 1 << 16;
+    /**
+     * Default number of candidate names each worker of the approximate name
+     * counter remembers.
+     */
+    static final int DEFAULT_HEAVY_HITTERS = 32;
+
     /**
      * Sequentially computes the average age of all actively enrolled students
      * using loops.
@@ -119,6 +138,101 @@ public final class StudentAnalytics {
                 .orElse(null);
     }
 
+    /**
+     * Computes the most common first name out of all students that are no
+     * longer active in the class in parallel, without boxed counters. The
+     * roster is split into one chunk per worker; each worker encodes the
+     * first names of its chunk to int ids in a shared NameDictionary and
+     * counts the ids in its own primitive histogram, and the histograms are
+     * added together at the end. Callers that query the same roster
+     * repeatedly should build a StudentTable, which encodes the names once
+     * for all queries.
+     *
+     * @param studentArray Student data for the class.
+     * @return Most common first name of inactive students
+     */
+    public String mostCommonFirstNameOfInactiveStudentsHistogram(
+            final Student[] studentArray) {
+        final NameDictionary dictionary = new NameDictionary();
+        final int nChunks = workerCount();
+        final NameHistogram nameCounts = IntStream.range(0, nChunks)
+                .parallel()
+                .mapToObj(c -> {
+                    final NameHistogram counts = new NameHistogram();
+                    for (int i = chunkStart(c, studentArray.length, nChunks);
+                            i < chunkStart(c + 1, studentArray.length, nChunks); i++) {
+                        if (!studentArray[i].checkIsCurrent()) {
+                            counts.add(dictionary.encode(studentArray[i].getFirstName()));
+                        }
+                    }
+                    return counts;
+                })
+                .reduce((a, b) -> {
+                    a.addAll(b);
+                    return a;
+                })
+                .orElseGet(NameHistogram::new);
+        final String[] names = dictionary.toArray();
+        return mostCommonName(nameCounts.counts, id -> names[id]);
+    }
+
+    /**
+     * Approximates the most common first name out of all students that are
+     * no longer active in the class, using default sketch dimensions.
+     *
+     * @param studentArray Student data for the class.
+     * @return Most common first name of inactive students, with high
+     *         probability
+     */
+    public String mostCommonFirstNameOfInactiveStudentsApproximate(
+            final Student[] studentArray) {
+        return mostCommonFirstNameOfInactiveStudentsApproximate(studentArray,
+                DEFAULT_SKETCH_DEPTH, DEFAULT_SKETCH_WIDTH,
+                DEFAULT_HEAVY_HITTERS);
+    }
+
+    /**
+     * Approximates the most common first name out of all students that are
+     * no longer active in the class in bounded memory, for rosters with too
+     * many distinct names to count exactly. The roster is split into one
+     * chunk per worker, so that only one sketch is allocated per worker, and
+     * each worker counts the names of its chunk in a count-min sketch and
+     * remembers the names with the highest estimates seen so far. The
+     * sketches are merged and the remembered names are ranked by their
+     * estimate in the merged sketch.
+     *
+     * @param studentArray  Student data for the class.
+     * @param depth         Number of hash functions of each sketch
+     * @param width         Number of counters per hash function
+     * @param heavyHitters  Number of candidate names each worker remembers
+     * @return Most common first name of inactive students, with high
+     *         probability
+     */
+    public String mostCommonFirstNameOfInactiveStudentsApproximate(
+            final Student[] studentArray, final int depth, final int width,
+            final int heavyHitters) {
+        final int nChunks = workerCount();
+        return IntStream.range(0, nChunks)
+                .parallel()
+                .mapToObj(c -> {
+                    final HeavyHitters hitters =
+                        new HeavyHitters(depth, width, heavyHitters);
+                    for (int i = chunkStart(c, studentArray.length, nChunks);
+                            i < chunkStart(c + 1, studentArray.length, nChunks); i++) {
+                        if (!studentArray[i].checkIsCurrent()) {
+                            hitters.add(studentArray[i].getFirstName());
+                        }
+                    }
+                    return hitters;
+                })
+                .reduce((a, b) -> {
+                    a.addAll(b);
+                    return a;
+                })
+                .map(HeavyHitters::mostCommon)
+                .orElse(null);
+    }
+
     /**
      * Sequentially computes the number of students who have failed the course
      * who are also older than 20 years old. A failing grade is anything below a
@@ -159,4 +273,657 @@ public final class StudentAnalytics {
                              && s.getGrade() < 65)
                 .count();
     }
+
+    /**
+     * Sequentially evaluates several analytics in a single loop over the
+     * students.
+     *
+     * @param studentArray Student data for the class.
+     * @param queries      The analytics to evaluate
+     * @return The answer to each query
+     */
+    public StudentQueryResults evaluateQueriesImperative(
+            final Student[] studentArray, final StudentQuery... queries) {
+        final Set<StudentQuery> querySet = toQuerySet(queries);
+        final FusedAccumulator acc = new FusedAccumulator(querySet,
+                new NameDictionary());
+        for (Student s : studentArray) {
+            acc.add(s);
+        }
+        return acc.toResults();
+    }
+
+    /**
+     * Evaluates several analytics in a single parallel pass over the
+     * students, instead of one pass per analytic. Each worker updates one
+     * combined accumulator holding the state of every requested query, and
+     * the accumulators are merged at the end, so the cost of the batch stays
+     * close to that of a single scan.
+     *
+     * @param studentArray Student data for the class.
+     * @param queries      The analytics to evaluate
+     * @return The answer to each query
+     */
+    public StudentQueryResults evaluateQueriesParallelStream(
+            final Student[] studentArray, final StudentQuery... queries) {
+        final Set<StudentQuery> querySet = toQuerySet(queries);
+        final NameDictionary dictionary = new NameDictionary();
+        return Arrays.stream(studentArray)
+                .parallel()
+                .collect(() -> new FusedAccumulator(querySet, dictionary),
+                        FusedAccumulator::add, FusedAccumulator::addAll)
+                .toResults();
+    }
+
+    /**
+     * Collects queries into a set.
+     *
+     * @param queries The queries, possibly with repetitions
+     * @return The distinct queries
+     */
+    private static Set<StudentQuery> toQuerySet(final StudentQuery... queries) {
+        final Set<StudentQuery> querySet = EnumSet.noneOf(StudentQuery.class);
+        querySet.addAll(Arrays.asList(queries));
+        return querySet;
+    }
+
+    /**
+     * Sequentially computes the average age of all actively enrolled students
+     * over a columnar table. Only the enrollment bitset and the age column are
+     * read.
+     *
+     * @param table Columnar student data for the class.
+     * @return Average age of enrolled students
+     */
+    public double averageAgeOfEnrolledStudentsImperative(
+            final StudentTable table) {
+        double ageSum = 0.0;
+        long count = 0;
+        for (int w = 0; w < table.getWordCount(); w++) {
+            ageSum += sumAgesOfEnrolled(table, w);
+            count += Long.bitCount(table.getCurrentWord(w));
+        }
+        return ageSum / (double) count;
+    }
+
+    /**
+     * Computes the average age of all actively enrolled students over a
+     * columnar table in parallel, one bitset word of 64 students at a time.
+     *
+     * @param table Columnar student data for the class.
+     * @return Average age of enrolled students
+     */
+    public double averageAgeOfEnrolledStudentsParallelStream(
+            final StudentTable table) {
+        final long count = IntStream.range(0, table.getWordCount())
+                .parallel()
+                .mapToLong(w -> Long.bitCount(table.getCurrentWord(w)))
+                .sum();
+        if (count == 0) {
+            return 0.0;
+        }
+        final double ageSum = IntStream.range(0, table.getWordCount())
+                .parallel()
+                .mapToDouble(w -> sumAgesOfEnrolled(table, w))
+                .sum();
+        return ageSum / (double) count;
+    }
+
+    /**
+     * Sequentially computes the most common first name out of all students
+     * that are no longer active in the class over a columnar table. Names are
+     * counted by dictionary id in a primitive histogram.
+     *
+     * @param table Columnar student data for the class.
+     * @return Most common first name of inactive students
+     */
+    public String mostCommonFirstNameOfInactiveStudentsImperative(
+            final StudentTable table) {
+        final int[] nameCounts = new int[table.getFirstNameCount()];
+        for (int w = 0; w < table.getWordCount(); w++) {
+            countFirstNamesOfInactive(table, w, nameCounts);
+        }
+        return mostCommonFirstName(table, nameCounts);
+    }
+
+    /**
+     * Computes the most common first name out of all students that are no
+     * longer active in the class over a columnar table in parallel. Each
+     * worker fills its own primitive histogram of name ids, and the
+     * histograms are added together at the end.
+     *
+     * @param table Columnar student data for the class.
+     * @return Most common first name of inactive students
+     */
+    public String mostCommonFirstNameOfInactiveStudentsParallelStream(
+            final StudentTable table) {
+        final int nNames = table.getFirstNameCount();
+        final int[] nameCounts = IntStream.range(0, table.getWordCount())
+                .parallel()
+                .collect(() -> new int[nNames],
+                        (counts, w) -> countFirstNamesOfInactive(table, w, counts),
+                        StudentAnalytics::addHistogram);
+        return mostCommonFirstName(table, nameCounts);
+    }
+
+    /**
+     * Sequentially computes the number of students who have failed the course
+     * who are also older than 20 years old over a columnar table. Only
+     * inactive students have their age and grade read.
+     *
+     * @param table Columnar student data for the class.
+     * @return Number of failed grades from students older than 20 years old.
+     */
+    public int countNumberOfFailedStudentsOlderThan20Imperative(
+            final StudentTable table) {
+        int count = 0;
+        for (int w = 0; w < table.getWordCount(); w++) {
+            count += countFailedOlderThan20(table, w);
+        }
+        return count;
+    }
+
+    /**
+     * Computes the number of students who have failed the course who are also
+     * older than 20 years old over a columnar table in parallel.
+     *
+     * @param table Columnar student data for the class.
+     * @return Number of failed grades from students older than 20 years old.
+     */
+    public int countNumberOfFailedStudentsOlderThan20ParallelStream(
+            final StudentTable table) {
+        return IntStream.range(0, table.getWordCount())
+                .parallel()
+                .map(w -> countFailedOlderThan20(table, w))
+                .sum();
+    }
+
+    /**
+     * Computes the average age of all actively enrolled students from the
+     * block statistics, in parallel, without visiting any student.
+     *
+     * @param blocks Student data for the class, with block statistics.
+     * @return Average age of enrolled students
+     */
+    public double averageAgeOfEnrolledStudentsParallelStream(
+            final StudentBlocks blocks) {
+        final long count = blocks.blocks()
+                .mapToLong(StudentBlocks.Block::getCurrentCount)
+                .sum();
+        if (count == 0) {
+            return 0.0;
+        }
+        return blocks.blocks()
+                .mapToDouble(StudentBlocks.Block::getCurrentAgeSum)
+                .sum() / (double) count;
+    }
+
+    /**
+     * Sequentially computes the number of students who have failed the course
+     * who are also older than 20 years old, skipping the blocks whose
+     * statistics rule out a match.
+     *
+     * @param blocks Student data for the class, with block statistics.
+     * @return Number of failed grades from students older than 20 years old.
+     */
+    public int countNumberOfFailedStudentsOlderThan20Imperative(
+            final StudentBlocks blocks) {
+        return countStudentsInRangeImperative(blocks, false,
+                Math.nextUp(20.0), Double.POSITIVE_INFINITY,
+                Integer.MIN_VALUE, 64);
+    }
+
+    /**
+     * Computes the number of students who have failed the course who are also
+     * older than 20 years old in parallel, skipping the blocks whose
+     * statistics rule out a match.
+     *
+     * @param blocks Student data for the class, with block statistics.
+     * @return Number of failed grades from students older than 20 years old.
+     */
+    public int countNumberOfFailedStudentsOlderThan20ParallelStream(
+            final StudentBlocks blocks) {
+        return countStudentsInRangeParallelStream(blocks, false,
+                Math.nextUp(20.0), Double.POSITIVE_INFINITY,
+                Integer.MIN_VALUE, 64);
+    }
+
+    /**
+     * Sequentially counts the students with the given enrollment whose age
+     * and grade lie in the given inclusive ranges, using the zone map of
+     * each block to skip it or count it whole where possible.
+     *
+     * @param blocks   Student data for the class, with block statistics.
+     * @param current  Whether to count enrolled or inactive students
+     * @param minAge   Minimum age, inclusive
+     * @param maxAge   Maximum age, inclusive
+     * @param minGrade Minimum grade, inclusive
+     * @param maxGrade Maximum grade, inclusive
+     * @return Number of matching students
+     */
+    public int countStudentsInRangeImperative(final StudentBlocks blocks,
+            final boolean current, final double minAge, final double maxAge,
+            final int minGrade, final int maxGrade) {
+        int count = 0;
+        for (int b = 0; b < blocks.getBlockCount(); b++) {
+            count += blocks.getBlock(b).countInRange(current, minAge, maxAge,
+                    minGrade, maxGrade);
+        }
+        return count;
+    }
+
+    /**
+     * Counts the students with the given enrollment whose age and grade lie
+     * in the given inclusive ranges in parallel, using the zone map of each
+     * block to skip it or count it whole where possible.
+     *
+     * @param blocks   Student data for the class, with block statistics.
+     * @param current  Whether to count enrolled or inactive students
+     * @param minAge   Minimum age, inclusive
+     * @param maxAge   Maximum age, inclusive
+     * @param minGrade Minimum grade, inclusive
+     * @param maxGrade Maximum grade, inclusive
+     * @return Number of matching students
+     */
+    public int countStudentsInRangeParallelStream(final StudentBlocks blocks,
+            final boolean current, final double minAge, final double maxAge,
+            final int minGrade, final int maxGrade) {
+        return blocks.blocks()
+                .mapToInt(b -> b.countInRange(current, minAge, maxAge,
+                        minGrade, maxGrade))
+                .sum();
+    }
+
+    /**
+     * Sums the ages of the enrolled students in one bitset word.
+     *
+     * @param table Columnar student data for the class.
+     * @param word  Index of the bitset word
+     * @return Sum of the ages of the enrolled students in the word
+     */
+    private static double sumAgesOfEnrolled(final StudentTable table,
+                                            final int word) {
+        final double[] ages = table.getAgeColumn();
+        final int base = word * StudentTable.BITS_PER_WORD;
+        long bits = table.getCurrentWord(word);
+        double ageSum = 0.0;
+        while (bits != 0) {
+            ageSum += ages[base + Long.numberOfTrailingZeros(bits)];
+            bits &= bits - 1;
+        }
+        return ageSum;
+    }
+
+    /**
+     * Adds the first names of the inactive students in one bitset word to a
+     * histogram of name ids.
+     *
+     * @param table      Columnar student data for the class.
+     * @param word       Index of the bitset word
+     * @param nameCounts Histogram of first name ids to update
+     */
+    private static void countFirstNamesOfInactive(final StudentTable table,
+                                                  final int word,
+                                                  final int[] nameCounts) {
+        final int[] nameIds = table.getFirstNameIdColumn();
+        final int base = word * StudentTable.BITS_PER_WORD;
+        long bits = table.getInactiveWord(word);
+        while (bits != 0) {
+            nameCounts[nameIds[base + Long.numberOfTrailingZeros(bits)]]++;
+            bits &= bits - 1;
+        }
+    }
+
+    /**
+     * Counts the inactive students older than 20 with a failing grade in one
+     * bitset word.
+     *
+     * @param table Columnar student data for the class.
+     * @param word  Index of the bitset word
+     * @return Number of failed students older than 20 in the word
+     */
+    private static int countFailedOlderThan20(final StudentTable table,
+                                              final int word) {
+        final double[] ages = table.getAgeColumn();
+        final int[] grades = table.getGradeColumn();
+        final int base = word * StudentTable.BITS_PER_WORD;
+        long bits = table.getInactiveWord(word);
+        int count = 0;
+        while (bits != 0) {
+            final int i = base + Long.numberOfTrailingZeros(bits);
+            if (ages[i] > 20 && grades[i] < 65) {
+                count++;
+            }
+            bits &= bits - 1;
+        }
+        return count;
+    }
+
+    /**
+     * Adds one histogram into another that is at least as long.
+     *
+     * @param into Histogram receiving the counts
+     * @param from Histogram to add
+     */
+    private static void addHistogram(final int[] into, final int[] from) {
+        for (int i = 0; i < from.length; i++) {
+            into[i] += from[i];
+        }
+    }
+
+    /**
+     * Finds the first name with the highest count in a histogram of name ids.
+     *
+     * @param table      Columnar student data for the class.
+     * @param nameCounts Histogram of first name ids
+     * @return The most common first name, or null if the histogram is empty
+     */
+    private static String mostCommonFirstName(final StudentTable table,
+                                              final int[] nameCounts) {
+        return mostCommonName(nameCounts, table::getFirstNameById);
+    }
+
+    /**
+     * Finds the name with the highest count in a histogram of name ids. Ties
+     * go to the name that sorts first, so the result does not depend on the
+     * order in which ids were assigned.
+     *
+     * @param nameCounts Histogram of name ids
+     * @param names      The name of each id
+     * @return The most common name, or null if the histogram is empty
+     */
+    private static String mostCommonName(final int[] nameCounts,
+                                         final IntFunction<String> names) {
+        int mostCommon = -1;
+        String mostCommonName = null;
+        for (int id = 0; id < nameCounts.length; id++) {
+            if (nameCounts[id] == 0
+                    || (mostCommon >= 0 && nameCounts[id] < nameCounts[mostCommon])) {
+                continue;
+            }
+            final String name = names.apply(id);
+            if (mostCommon < 0 || nameCounts[id] > nameCounts[mostCommon]
+                    || name.compareTo(mostCommonName) < 0) {
+                mostCommon = id;
+                mostCommonName = name;
+            }
+        }
+        return mostCommonName;
+    }
+
+    /**
+     * Gets the number of workers of the pool running the caller, or of the
+     * common pool, which is the number of chunks that keeps every worker
+     * busy with one piece of per-worker state each.
+     *
+     * @return The number of chunks to split a parallel loop into
+     */
+    private static int workerCount() {
+        return ForkJoinTask.inForkJoinPool()
+            ? ForkJoinTask.getPool().getParallelism()
+            : ForkJoinPool.getCommonPoolParallelism();
+    }
+
+    /**
+     * Computes the start of one of nChunks nearly equal chunks of n elements.
+     *
+     * @param chunk   Index of the chunk, nChunks for the end of the last one
+     * @param n       Number of elements
+     * @param nChunks Number of chunks
+     * @return The index of the first element of the chunk
+     */
+    private static int chunkStart(final int chunk, final int n,
+                                  final int nChunks) {
+        return (int) ((long) chunk * n / nChunks);
+    }
+
+    /**
+     * A histogram of name ids that grows as larger ids are counted, used as
+     * the per-worker container of a parallel collect.
+     */
+    private static final class NameHistogram {
+        /**
+         * Count of each id, possibly longer than the largest id seen.
+         */
+        private int[] counts = new int[16];
+
+        /**
+         * Counts one occurrence of an id.
+         *
+         * @param id The name id
+         */
+        void add(final int id) {
+            if (id >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(id + 1, 2 * counts.length));
+            }
+            counts[id]++;
+        }
+
+        /**
+         * Adds the counts of another histogram into this one.
+         *
+         * @param other The histogram to add
+         */
+        void addAll(final NameHistogram other) {
+            if (other.counts.length > counts.length) {
+                counts = Arrays.copyOf(counts, other.counts.length);
+            }
+            addHistogram(counts, other.counts);
+        }
+    }
+
+    /**
+     * A count-min sketch of names plus the names with the highest estimates
+     * seen so far, used as the per-worker container of a parallel collect.
+     */
+    private static final class HeavyHitters {
+        /**
+         * Approximate counts of all names.
+         */
+        private final CountMinSketch sketch;
+        /**
+         * Maximum number of candidate names remembered.
+         */
+        private final int capacity;
+        /**
+         * Candidate names with their estimate when last seen.
+         */
+        private final Map<String, Long> candidates = new HashMap<>();
+        /**
+         * Lower bound on the smallest estimate among the candidates. Names
+         * estimated below it cannot displace a candidate, which saves a scan
+         * of the candidates for most of them.
+         */
+        private long minCandidateEstimate;
+
+        /**
+         * Constructor.
+         *
+         * @param depth       Number of hash functions of the sketch
+         * @param width       Number of counters per hash function
+         * @param setCapacity Number of candidate names to remember
+         */
+        HeavyHitters(final int depth, final int width, final int setCapacity) {
+            this.sketch = new CountMinSketch(depth, width);
+            this.capacity = Math.max(1, setCapacity);
+        }
+
+        /**
+         * Counts one occurrence of a name.
+         *
+         * @param name The name
+         */
+        void add(final String name) {
+            final long estimate = sketch.add(name);
+            if (candidates.containsKey(name) || candidates.size() < capacity) {
+                candidates.put(name, estimate);
+            } else if (estimate > minCandidateEstimate) {
+                final String least = leastCandidate();
+                final long leastEstimate = candidates.get(least);
+                if (estimate > leastEstimate) {
+                    candidates.remove(least);
+                    candidates.put(name, estimate);
+                }
+                minCandidateEstimate = leastEstimate;
+            }
+        }
+
+        /**
+         * Finds the candidate with the smallest estimate.
+         *
+         * @return The least frequent candidate name
+         */
+        private String leastCandidate() {
+            String least = null;
+            long leastEstimate = Long.MAX_VALUE;
+            for (Entry<String, Long> entry : candidates.entrySet()) {
+                if (entry.getValue() < leastEstimate) {
+                    least = entry.getKey();
+                    leastEstimate = entry.getValue();
+                }
+            }
+            return least;
+        }
+
+        /**
+         * Merges the counts and candidates of another worker into this one.
+         * Candidates are kept without eviction, since their estimates are
+         * only meaningful once every sketch has been merged.
+         *
+         * @param other The counts to merge in
+         */
+        void addAll(final HeavyHitters other) {
+            sketch.merge(other.sketch);
+            candidates.putAll(other.candidates);
+        }
+
+        /**
+         * Ranks the candidates by their estimate in the merged sketch.
+         *
+         * @return The candidate with the highest estimate, or null if no name
+         *         was counted
+         */
+        String mostCommon() {
+            String mostCommon = null;
+            long mostCommonCount = -1;
+            for (String name : candidates.keySet()) {
+                final long estimate = sketch.estimate(name);
+                if (estimate > mostCommonCount) {
+                    mostCommon = name;
+                    mostCommonCount = estimate;
+                }
+            }
+            return mostCommon;
+        }
+    }
+
+    /**
+     * The combined per-worker state of a batch of queries.
+     */
+    private static final class FusedAccumulator {
+        /**
+         * The queries being evaluated.
+         */
+        private final Set<StudentQuery> queries;
+        /**
+         * Whether the average age query is being evaluated.
+         */
+        private final boolean averageAge;
+        /**
+         * Whether the most common name query is being evaluated.
+         */
+        private final boolean mostCommonName;
+        /**
+         * Whether the failed students query is being evaluated.
+         */
+        private final boolean failedCount;
+        /**
+         * Dictionary of first names, shared by all workers.
+         */
+        private final NameDictionary dictionary;
+        /**
+         * Sum of the ages of enrolled students.
+         */
+        private double ageSum;
+        /**
+         * Number of enrolled students.
+         */
+        private long enrolled;
+        /**
+         * Counts of the first name ids of inactive students.
+         */
+        private final NameHistogram nameCounts = new NameHistogram();
+        /**
+         * Number of failed students older than 20.
+         */
+        private int failed;
+
+        /**
+         * Constructor.
+         *
+         * @param setQueries    The queries to evaluate
+         * @param setDictionary Dictionary of first names shared by all workers
+         */
+        FusedAccumulator(final Set<StudentQuery> setQueries,
+                         final NameDictionary setDictionary) {
+            this.queries = setQueries;
+            this.averageAge = setQueries.contains(
+                    StudentQuery.AVERAGE_AGE_OF_ENROLLED_STUDENTS);
+            this.mostCommonName = setQueries.contains(
+                    StudentQuery.MOST_COMMON_FIRST_NAME_OF_INACTIVE_STUDENTS);
+            this.failedCount = setQueries.contains(
+                    StudentQuery.NUMBER_OF_FAILED_STUDENTS_OLDER_THAN_20);
+            this.dictionary = setDictionary;
+        }
+
+        /**
+         * Updates every requested query with one student.
+         *
+         * @param s The student
+         */
+        void add(final Student s) {
+            if (s.checkIsCurrent()) {
+                if (averageAge) {
+                    ageSum += s.getAge();
+                    enrolled++;
+                }
+            } else {
+                if (mostCommonName) {
+                    nameCounts.add(dictionary.encode(s.getFirstName()));
+                }
+                if (failedCount && s.getAge() > 20 && s.getGrade() < 65) {
+                    failed++;
+                }
+            }
+        }
+
+        /**
+         * Merges the state of another worker into this one.
+         *
+         * @param other The state to merge in
+         */
+        void addAll(final FusedAccumulator other) {
+            ageSum += other.ageSum;
+            enrolled += other.enrolled;
+            nameCounts.addAll(other.nameCounts);
+            failed += other.failed;
+        }
+
+        /**
+         * Computes the answer to each query from the accumulated state.
+         *
+         * @return The answers
+         */
+        StudentQueryResults toResults() {
+            final double averageAgeResult = enrolled == 0 ? 0.0 : ageSum / (double) enrolled;
+            String mostCommonNameResult = null;
+            if (mostCommonName) {
+                final String[] names = dictionary.toArray();
+                mostCommonNameResult = mostCommonName(nameCounts.counts,
+                        id -> names[id]);
+            }
+            return new StudentQueryResults(queries, averageAgeResult,
+                    mostCommonNameResult, failed);
+        }
+    }
 }
@@ -0,0 +1,383 @@
+package edu.coursera.parallel;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A Student array divided into fixed-size blocks, with statistics about each
+ * block computed once, in parallel, when the blocks are created. Queries can
+ * then stream over whole blocks and answer from the statistics, or skip the
+ * blocks that cannot contain a match, instead of visiting every student.
+ * <p>
+ * Besides the enrolled count and age sum, each block has a zone map: the
+ * minimum and maximum age and grade of its students. A range query skips
+ * every block whose zone map lies outside the range, and counts every block
+ * whose zone map lies inside it without visiting its students. The more the
+ * array is ordered by age, grade or enrollment, the more blocks are pruned.
+ * <p>
+ * The block size is a multiple of the number of references in a 64-byte
+ * cache line, so block boundaries are cache-line aligned relative to the
+ * start of the array. The array must not be modified while its blocks are
+ * in use.
+ */
+public final class StudentBlocks {
+    /**
+     * Number of object references in a 64-byte cache line, assuming
+     * compressed references.
+     */
+    static final int REFERENCES_PER_CACHE_LINE = 16;
+    /**
+     * Default number of students in each block.
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    /**
+     * The students.
+     */
+    private final Student[] students;
+    /**
+     * Number of students in each block, except possibly the last.
+     */
+    private final int blockSize;
+    /**
+     * Number of currently enrolled students in each block.
+     */
+    private final int[] currentCounts;
+    /**
+     * Sum of the ages of the currently enrolled students in each block.
+     */
+    private final double[] currentAgeSums;
+    /**
+     * Minimum age of the students in each block.
+     */
+    private final double[] minAges;
+    /**
+     * Maximum age of the students in each block.
+     */
+    private final double[] maxAges;
+    /**
+     * Minimum grade of the students in each block.
+     */
+    private final int[] minGrades;
+    /**
+     * Maximum grade of the students in each block.
+     */
+    private final int[] maxGrades;
+
+    /**
+     * Constructor, dividing students into blocks of the default size.
+     *
+     * @param studentArray Student data for the class.
+     */
+    public StudentBlocks(final Student[] studentArray) {
+        this(studentArray, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param studentArray Student data for the class.
+     * @param setBlockSize Number of students in each block, rounded up to a
+     *                     multiple of the references in a cache line
+     */
+    public StudentBlocks(final Student[] studentArray, final int setBlockSize) {
+        if (setBlockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: "
+                    + setBlockSize);
+        }
+        this.students = studentArray;
+        this.blockSize = (setBlockSize + REFERENCES_PER_CACHE_LINE - 1)
+                / REFERENCES_PER_CACHE_LINE * REFERENCES_PER_CACHE_LINE;
+        final int nBlocks = (studentArray.length + blockSize - 1) / blockSize;
+        this.currentCounts = new int[nBlocks];
+        this.currentAgeSums = new double[nBlocks];
+        this.minAges = new double[nBlocks];
+        this.maxAges = new double[nBlocks];
+        this.minGrades = new int[nBlocks];
+        this.maxGrades = new int[nBlocks];
+        IntStream.range(0, nBlocks).parallel().forEach(this::summarize);
+    }
+
+    /**
+     * Computes the statistics of one block.
+     *
+     * @param block Index of the block
+     */
+    private void summarize(final int block) {
+        final int end = getBlockEnd(block);
+        int count = 0;
+        double ageSum = 0.0;
+        double minAge = Double.POSITIVE_INFINITY;
+        double maxAge = Double.NEGATIVE_INFINITY;
+        int minGrade = Integer.MAX_VALUE;
+        int maxGrade = Integer.MIN_VALUE;
+        for (int i = block * blockSize; i < end; i++) {
+            final Student s = students[i];
+            if (s.checkIsCurrent()) {
+                count++;
+                ageSum += s.getAge();
+            }
+            minAge = Math.min(minAge, s.getAge());
+            maxAge = Math.max(maxAge, s.getAge());
+            minGrade = Math.min(minGrade, s.getGrade());
+            maxGrade = Math.max(maxGrade, s.getGrade());
+        }
+        currentCounts[block] = count;
+        currentAgeSums[block] = ageSum;
+        minAges[block] = minAge;
+        maxAges[block] = maxAge;
+        minGrades[block] = minGrade;
+        maxGrades[block] = maxGrade;
+    }
+
+    /**
+     * Get the number of students.
+     * @return The number of students.
+     */
+    public int size() {
+        return students.length;
+    }
+
+    /**
+     * Get the number of students in each block, except possibly the last.
+     * @return The block size.
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Get the number of blocks.
+     * @return The number of blocks.
+     */
+    public int getBlockCount() {
+        return currentCounts.length;
+    }
+
+    /**
+     * Get a view of one block.
+     * @param block Index of the block
+     * @return The block.
+     */
+    public Block getBlock(final int block) {
+        return new Block(block);
+    }
+
+    /**
+     * Get the index one past the last student of a block.
+     * @param block Index of the block
+     * @return The end of the block.
+     */
+    private int getBlockEnd(final int block) {
+        return Math.min((block + 1) * blockSize, students.length);
+    }
+
+    /**
+     * Creates a parallel stream over all students, split on block boundaries.
+     * @return A SIZED parallel stream of the students.
+     */
+    public Stream<Student> stream() {
+        return StreamSupport.stream(new StudentSpliterator(students, 0,
+                students.length, blockSize), true);
+    }
+
+    /**
+     * Creates a parallel stream over the blocks.
+     * @return A SIZED parallel stream of the blocks.
+     */
+    public Stream<Block> blocks() {
+        return StreamSupport.stream(new BlockSpliterator(0, getBlockCount()),
+                true);
+    }
+
+    /**
+     * A view of one block and its statistics.
+     */
+    public final class Block {
+        /**
+         * Index of the block.
+         */
+        private final int index;
+
+        /**
+         * Constructor.
+         *
+         * @param setIndex Index of the block
+         */
+        Block(final int setIndex) {
+            this.index = setIndex;
+        }
+
+        /**
+         * Get the number of students in this block.
+         * @return The number of students.
+         */
+        public int size() {
+            return getBlockEnd(index) - index * blockSize;
+        }
+
+        /**
+         * Get the number of currently enrolled students in this block.
+         * @return The number of enrolled students.
+         */
+        public int getCurrentCount() {
+            return currentCounts[index];
+        }
+
+        /**
+         * Get the number of students in this block who are not enrolled.
+         * @return The number of inactive students.
+         */
+        public int getInactiveCount() {
+            return size() - currentCounts[index];
+        }
+
+        /**
+         * Get the sum of the ages of the currently enrolled students in this
+         * block.
+         * @return The age sum of enrolled students.
+         */
+        public double getCurrentAgeSum() {
+            return currentAgeSums[index];
+        }
+
+        /**
+         * Get the minimum age of the students in this block.
+         * @return The minimum age.
+         */
+        public double getMinAge() {
+            return minAges[index];
+        }
+
+        /**
+         * Get the maximum age of the students in this block.
+         * @return The maximum age.
+         */
+        public double getMaxAge() {
+            return maxAges[index];
+        }
+
+        /**
+         * Get the minimum grade of the students in this block.
+         * @return The minimum grade.
+         */
+        public int getMinGrade() {
+            return minGrades[index];
+        }
+
+        /**
+         * Get the maximum grade of the students in this block.
+         * @return The maximum grade.
+         */
+        public int getMaxGrade() {
+            return maxGrades[index];
+        }
+
+        /**
+         * Counts the students in this block with the given enrollment whose
+         * age and grade lie in the given inclusive ranges. The students are
+         * only visited if the zone map neither rules out nor guarantees a
+         * match for every student.
+         *
+         * @param current  Whether to count enrolled or inactive students
+         * @param minAge   Minimum age, inclusive
+         * @param maxAge   Maximum age, inclusive
+         * @param minGrade Minimum grade, inclusive
+         * @param maxGrade Maximum grade, inclusive
+         * @return The number of matching students.
+         */
+        public int countInRange(final boolean current, final double minAge,
+                final double maxAge, final int minGrade, final int maxGrade) {
+            final int candidates = current ? getCurrentCount() : getInactiveCount();
+            if (candidates == 0
+                    || maxAges[index] < minAge || minAges[index] > maxAge
+                    || maxGrades[index] < minGrade || minGrades[index] > maxGrade) {
+                return 0;
+            }
+            if (candidates == size()
+                    && minAges[index] >= minAge && maxAges[index] <= maxAge
+                    && minGrades[index] >= minGrade && maxGrades[index] <= maxGrade) {
+                return candidates;
+            }
+            final int end = getBlockEnd(index);
+            int count = 0;
+            for (int i = index * blockSize; i < end; i++) {
+                final Student s = students[i];
+                if (s.checkIsCurrent() == current
+                        && s.getAge() >= minAge && s.getAge() <= maxAge
+                        && s.getGrade() >= minGrade && s.getGrade() <= maxGrade) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Creates a sequential stream over the students of this block.
+         * @return A SIZED stream of the students.
+         */
+        public Stream<Student> stream() {
+            return StreamSupport.stream(new StudentSpliterator(students,
+                    index * blockSize, getBlockEnd(index), blockSize), false);
+        }
+    }
+
+    /**
+     * A spliterator over a range of blocks.
+     */
+    private final class BlockSpliterator implements Spliterator<Block> {
+        /**
+         * Index of the next block to visit.
+         */
+        private int index;
+        /**
+         * Index one past the last block to visit.
+         */
+        private final int fence;
+
+        /**
+         * Constructor.
+         *
+         * @param setStartIndexInclusive Index of the first block to visit
+         * @param setEndIndexExclusive   Index one past the last block to visit
+         */
+        BlockSpliterator(final int setStartIndexInclusive,
+                         final int setEndIndexExclusive) {
+            this.index = setStartIndexInclusive;
+            this.fence = setEndIndexExclusive;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Block> action) {
+            if (index < fence) {
+                action.accept(new Block(index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<Block> trySplit() {
+            final int lo = index;
+            final int mid = lo + (fence - lo) / 2;
+            if (mid <= lo) {
+                return null;
+            }
+            index = mid;
+            return new BlockSpliterator(lo, mid);
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
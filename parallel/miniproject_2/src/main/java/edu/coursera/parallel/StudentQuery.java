@@ -0,0 +1,21 @@
+package edu.coursera.parallel;
+
+/**
+ * The analytics that can be evaluated together in a single pass by
+ * StudentAnalytics.evaluateQueriesImperative and
+ * StudentAnalytics.evaluateQueriesParallelStream.
+ */
+public enum StudentQuery {
+    /**
+     * Average age of all actively enrolled students.
+     */
+    AVERAGE_AGE_OF_ENROLLED_STUDENTS,
+    /**
+     * Most common first name out of all students that are no longer active.
+     */
+    MOST_COMMON_FIRST_NAME_OF_INACTIVE_STUDENTS,
+    /**
+     * Number of inactive students older than 20 with a failing grade.
+     */
+    NUMBER_OF_FAILED_STUDENTS_OLDER_THAN_20
+}
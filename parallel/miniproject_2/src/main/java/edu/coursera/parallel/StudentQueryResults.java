@@ -0,0 +1,88 @@
+package edu.coursera.parallel;
+
+import java.util.Set;
+
+/**
+ * The answers to a batch of student queries evaluated in a single pass.
+ * Only the queries that were part of the batch have an answer.
+ */
+public final class StudentQueryResults {
+    /**
+     * The queries that were evaluated.
+     */
+    private final Set<StudentQuery> queries;
+    /**
+     * Average age of enrolled students.
+     */
+    private final double averageAgeOfEnrolledStudents;
+    /**
+     * Most common first name of inactive students.
+     */
+    private final String mostCommonFirstNameOfInactiveStudents;
+    /**
+     * Number of failed students older than 20.
+     */
+    private final int numberOfFailedStudentsOlderThan20;
+
+    /**
+     * Constructor.
+     *
+     * @param setQueries                               The queries evaluated
+     * @param setAverageAgeOfEnrolledStudents          Average age of enrolled
+     *                                                 students
+     * @param setMostCommonFirstNameOfInactiveStudents Most common first name
+     *                                                 of inactive students
+     * @param setNumberOfFailedStudentsOlderThan20     Number of failed
+     *                                                 students older than 20
+     */
+    StudentQueryResults(final Set<StudentQuery> setQueries,
+            final double setAverageAgeOfEnrolledStudents,
+            final String setMostCommonFirstNameOfInactiveStudents,
+            final int setNumberOfFailedStudentsOlderThan20) {
+        this.queries = setQueries;
+        this.averageAgeOfEnrolledStudents = setAverageAgeOfEnrolledStudents;
+        this.mostCommonFirstNameOfInactiveStudents = setMostCommonFirstNameOfInactiveStudents;
+        this.numberOfFailedStudentsOlderThan20 = setNumberOfFailedStudentsOlderThan20;
+    }
+
+    /**
+     * Check that a query was part of the batch.
+     *
+     * @param query The query to check
+     * @throws IllegalStateException if the query was not evaluated
+     */
+    private void checkEvaluated(final StudentQuery query) {
+        if (!queries.contains(query)) {
+            throw new IllegalStateException(query + " was not evaluated");
+        }
+    }
+
+    /**
+     * Get the average age of all actively enrolled students, or 0.0 if no
+     * student is enrolled.
+     * @return Average age of enrolled students
+     */
+    public double getAverageAgeOfEnrolledStudents() {
+        checkEvaluated(StudentQuery.AVERAGE_AGE_OF_ENROLLED_STUDENTS);
+        return averageAgeOfEnrolledStudents;
+    }
+
+    /**
+     * Get the most common first name out of all students that are no longer
+     * active, or null if every student is active.
+     * @return Most common first name of inactive students
+     */
+    public String getMostCommonFirstNameOfInactiveStudents() {
+        checkEvaluated(StudentQuery.MOST_COMMON_FIRST_NAME_OF_INACTIVE_STUDENTS);
+        return mostCommonFirstNameOfInactiveStudents;
+    }
+
+    /**
+     * Get the number of inactive students older than 20 with a failing grade.
+     * @return Number of failed grades from students older than 20 years old.
+     */
+    public int getNumberOfFailedStudentsOlderThan20() {
+        checkEvaluated(StudentQuery.NUMBER_OF_FAILED_STUDENTS_OLDER_THAN_20);
+        return numberOfFailedStudentsOlderThan20;
+    }
+}
@@ -0,0 +1,101 @@
+package edu.coursera.parallel;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over a range of a Student array that only splits on block
+ * boundaries. Every split except possibly the last one covers whole blocks,
+ * so workers never share the cache lines at the edges of their ranges, and
+ * each split lines up with the block summaries of a StudentBlocks. The
+ * spliterator is SIZED and SUBSIZED, so streams over it know their exact
+ * size at every split.
+ */
+public final class StudentSpliterator implements Spliterator<Student> {
+    /**
+     * The students to iterate over.
+     */
+    private final Student[] students;
+    /**
+     * Number of students in each block, splits are multiples of it.
+     */
+    private final int blockSize;
+    /**
+     * Index of the next student to visit.
+     */
+    private int index;
+    /**
+     * Index one past the last student to visit.
+     */
+    private final int fence;
+
+    /**
+     * Constructor.
+     *
+     * @param setStudents            The students to iterate over
+     * @param setStartIndexInclusive Index of the first student to visit
+     * @param setEndIndexExclusive   Index one past the last student to visit
+     * @param setBlockSize           Number of students in each block
+     */
+    public StudentSpliterator(final Student[] setStudents,
+            final int setStartIndexInclusive, final int setEndIndexExclusive,
+            final int setBlockSize) {
+        if (setBlockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: "
+                    + setBlockSize);
+        }
+        this.students = setStudents;
+        this.index = setStartIndexInclusive;
+        this.fence = setEndIndexExclusive;
+        this.blockSize = setBlockSize;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Student> action) {
+        if (index < fence) {
+            action.accept(students[index++]);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super Student> action) {
+        final Student[] a = students;
+        final int hi = fence;
+        int i = index;
+        index = hi;
+        for (; i < hi; i++) {
+            action.accept(a[i]);
+        }
+    }
+
+    /**
+     * Splits off the first half of the remaining students, rounded down to a
+     * block boundary.
+     *
+     * @return A spliterator over the first half, or null if the remaining
+     *         students fit in one block
+     */
+    @Override
+    public Spliterator<Student> trySplit() {
+        final int lo = index;
+        int mid = lo + (fence - lo) / 2;
+        mid -= mid % blockSize;
+        if (mid <= lo) {
+            return null;
+        }
+        index = mid;
+        return new StudentSpliterator(students, lo, mid, blockSize);
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+    }
+}
@@ -0,0 +1,205 @@
+package edu.coursera.parallel;
+
+/**
+ * A column-oriented copy of a class roster. Instead of one Student object per
+ * student, each attribute is stored in its own primitive array indexed by
+ * student number: ages in a double[], grades in an int[], enrollment as a
+ * bitset and names as ids into a dictionary of distinct names. A scan that
+ * filters on enrollment and reads ages then only touches those two columns,
+ * sequentially, without chasing a pointer per student.
+ */
+public final class StudentTable {
+    /**
+     * Number of students stored in each word of the enrollment bitset.
+     */
+    static final int BITS_PER_WORD = Long.SIZE;
+
+    /**
+     * Number of students in this table.
+     */
+    private final int size;
+    /**
+     * Age of each student.
+     */
+    private final double[] ages;
+    /**
+     * Grade of each student.
+     */
+    private final int[] grades;
+    /**
+     * Bit i of word i / 64 is set if student i is currently enrolled.
+     */
+    private final long[] currentBits;
+    /**
+     * Id of each student's first name in firstNameDictionary.
+     */
+    private final int[] firstNameIds;
+    /**
+     * Id of each student's last name in lastNameDictionary.
+     */
+    private final int[] lastNameIds;
+    /**
+     * Distinct first names, indexed by id.
+     */
+    private final String[] firstNameDictionary;
+    /**
+     * Distinct last names, indexed by id.
+     */
+    private final String[] lastNameDictionary;
+
+    /**
+     * Constructor, copying a roster into columns.
+     *
+     * @param studentArray Student data for the class.
+     */
+    public StudentTable(final Student[] studentArray) {
+        this.size = studentArray.length;
+        this.ages = new double[size];
+        this.grades = new int[size];
+        this.currentBits = new long[(size + BITS_PER_WORD - 1) / BITS_PER_WORD];
+        this.firstNameIds = new int[size];
+        this.lastNameIds = new int[size];
+
+        final NameDictionary firstNames = new NameDictionary();
+        final NameDictionary lastNames = new NameDictionary();
+        for (int i = 0; i < size; i++) {
+            final Student s = studentArray[i];
+            ages[i] = s.getAge();
+            grades[i] = s.getGrade();
+            if (s.checkIsCurrent()) {
+                currentBits[i / BITS_PER_WORD] |= 1L << i;
+            }
+            firstNameIds[i] = firstNames.encode(s.getFirstName());
+            lastNameIds[i] = lastNames.encode(s.getLastName());
+        }
+        this.firstNameDictionary = firstNames.toArray();
+        this.lastNameDictionary = lastNames.toArray();
+    }
+
+    /**
+     * Get the number of students in this table.
+     * @return The number of students.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the first name of a student.
+     * @param i Student number
+     * @return The student's first name.
+     */
+    public String getFirstName(final int i) {
+        return firstNameDictionary[firstNameIds[i]];
+    }
+
+    /**
+     * Get the last name of a student.
+     * @param i Student number
+     * @return The student's last name.
+     */
+    public String getLastName(final int i) {
+        return lastNameDictionary[lastNameIds[i]];
+    }
+
+    /**
+     * Get the age of a student.
+     * @param i Student number
+     * @return The student's age.
+     */
+    public double getAge(final int i) {
+        return ages[i];
+    }
+
+    /**
+     * Get the grade a student has achieved in this course so far.
+     * @param i Student number
+     * @return The student's current grade.
+     */
+    public int getGrade(final int i) {
+        return grades[i];
+    }
+
+    /**
+     * Check if a student is active, or has taken the course in the past.
+     * @param i Student number
+     * @return true if the student is currently enrolled, false otherwise
+     */
+    public boolean checkIsCurrent(final int i) {
+        return (currentBits[i / BITS_PER_WORD] & (1L << i)) != 0;
+    }
+
+    /**
+     * Get the number of words in the enrollment bitset.
+     * @return The number of bitset words.
+     */
+    int getWordCount() {
+        return currentBits.length;
+    }
+
+    /**
+     * Get the enrollment bits of 64 consecutive students, starting at
+     * student number word * 64. Bit k is set if that student + k is enrolled.
+     * @param word Index of the bitset word
+     * @return The enrollment bits of the word.
+     */
+    long getCurrentWord(final int word) {
+        return currentBits[word];
+    }
+
+    /**
+     * Get the inverse of getCurrentWord, with the bits past the last student
+     * cleared.
+     * @param word Index of the bitset word
+     * @return The bits of the students in the word who are not enrolled.
+     */
+    long getInactiveWord(final int word) {
+        final long inactive = ~currentBits[word];
+        final int valid = size - word * BITS_PER_WORD;
+        if (valid >= BITS_PER_WORD) {
+            return inactive;
+        }
+        return inactive & ((1L << valid) - 1);
+    }
+
+    /**
+     * Get the age column. Callers must not modify it.
+     * @return The age of every student.
+     */
+    double[] getAgeColumn() {
+        return ages;
+    }
+
+    /**
+     * Get the grade column. Callers must not modify it.
+     * @return The grade of every student.
+     */
+    int[] getGradeColumn() {
+        return grades;
+    }
+
+    /**
+     * Get the first name id column. Callers must not modify it.
+     * @return The first name id of every student.
+     */
+    int[] getFirstNameIdColumn() {
+        return firstNameIds;
+    }
+
+    /**
+     * Get the number of distinct first names.
+     * @return The size of the first name dictionary.
+     */
+    int getFirstNameCount() {
+        return firstNameDictionary.length;
+    }
+
+    /**
+     * Get the first name with a given id.
+     * @param id First name id
+     * @return The first name.
+     */
+    String getFirstNameById(final int id) {
+        return firstNameDictionary[id];
+    }
+}
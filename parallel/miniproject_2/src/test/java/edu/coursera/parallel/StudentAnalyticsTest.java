@@ -1,6 +1,10 @@
 package edu.coursera.parallel;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
 
 import junit.framework.TestCase;
 
@@ -165,4 +169,208 @@ public class StudentAnalyticsTest extends TestCase {
         assertTrue(msg, speedup > 1.2);
     }
 
+    /*
+     * Test that every analytic over a columnar StudentTable matches the Student[] imperative version.
+     */
+    public void testStudentTable() {
+        final Student[] students = generateStudentData();
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final StudentTable table = new StudentTable(students);
+
+        assertEquals(students.length, table.size());
+        for (int i = 0; i < students.length; i += 997) {
+            assertEquals(students[i].getFirstName(), table.getFirstName(i));
+            assertEquals(students[i].getLastName(), table.getLastName(i));
+            assertEquals(students[i].getGrade(), table.getGrade(i));
+            assertEquals(students[i].checkIsCurrent(), table.checkIsCurrent(i));
+        }
+
+        final double refAge = analytics.averageAgeOfEnrolledStudentsImperative(students);
+        assertEquals(refAge, analytics.averageAgeOfEnrolledStudentsImperative(table), 1E-5);
+        assertEquals(refAge, analytics.averageAgeOfEnrolledStudentsParallelStream(table), 1E-5);
+
+        final String refName = analytics.mostCommonFirstNameOfInactiveStudentsImperative(students);
+        assertEquals(refName, analytics.mostCommonFirstNameOfInactiveStudentsImperative(table));
+        assertEquals(refName, analytics.mostCommonFirstNameOfInactiveStudentsParallelStream(table));
+
+        final int refCount = analytics.countNumberOfFailedStudentsOlderThan20Imperative(students);
+        assertEquals(refCount, analytics.countNumberOfFailedStudentsOlderThan20Imperative(table));
+        assertEquals(refCount, analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(table));
+    }
+
+    /*
+     * Test the dictionary-encoded histogram and the approximate most common first name engines.
+     */
+    public void testMostCommonFirstNameHistogramAndApproximate() {
+        final Student[] students = generateStudentData();
+        final StudentAnalytics analytics = new StudentAnalytics();
+
+        final String ref = analytics.mostCommonFirstNameOfInactiveStudentsImperative(students);
+        assertEquals(ref, analytics.mostCommonFirstNameOfInactiveStudentsHistogram(students));
+        assertEquals(ref, analytics.mostCommonFirstNameOfInactiveStudentsApproximate(students));
+
+        // One frequent name hidden among a million distinct ones
+        final int N = 1_000_000;
+        final Student[] manyNames = new Student[N];
+        final Random r = new Random(17);
+        for (int s = 0; s < N; s++) {
+            final String firstName = (s % 50 == 0) ? "Frequent" : "Name" + s;
+            manyNames[s] = new Student(firstName, "Smith", r.nextDouble() * 100.0, 1 + r.nextInt(100), false);
+        }
+        assertEquals("Frequent", analytics.mostCommonFirstNameOfInactiveStudentsHistogram(manyNames));
+        assertEquals("Frequent", analytics.mostCommonFirstNameOfInactiveStudentsApproximate(manyNames));
+
+        // A tie goes to the name that sorts first, whatever the order of the roster and the interleaving
+        final Student[] tied = new Student[100_000];
+        for (int s = 0; s < tied.length; s++) {
+            tied[s] = new Student(s % 2 == 0 ? "Zoe" : "Anna", "Smith", 30.0, 50, false);
+        }
+        for (int run = 0; run < 10; run++) {
+            assertEquals("Anna", analytics.mostCommonFirstNameOfInactiveStudentsHistogram(tied));
+            assertEquals("Anna", analytics.mostCommonFirstNameOfInactiveStudentsParallelStream(new StudentTable(tied)));
+            assertEquals("Anna", analytics.evaluateQueriesParallelStream(tied,
+                    StudentQuery.MOST_COMMON_FIRST_NAME_OF_INACTIVE_STUDENTS).getMostCommonFirstNameOfInactiveStudents());
+        }
+    }
+
+    /*
+     * Test that a fused batch of queries gives the same answers as the individual analytics.
+     */
+    public void testEvaluateQueries() {
+        final Student[] students = generateStudentData();
+        final StudentAnalytics analytics = new StudentAnalytics();
+
+        final double refAge = analytics.averageAgeOfEnrolledStudentsImperative(students);
+        final String refName = analytics.mostCommonFirstNameOfInactiveStudentsImperative(students);
+        final int refCount = analytics.countNumberOfFailedStudentsOlderThan20Imperative(students);
+
+        final StudentQueryResults[] allResults = {
+            analytics.evaluateQueriesImperative(students, StudentQuery.values()),
+            analytics.evaluateQueriesParallelStream(students, StudentQuery.values())
+        };
+        for (StudentQueryResults results : allResults) {
+            assertEquals(refAge, results.getAverageAgeOfEnrolledStudents(), 1E-5);
+            assertEquals(refName, results.getMostCommonFirstNameOfInactiveStudents());
+            assertEquals(refCount, results.getNumberOfFailedStudentsOlderThan20());
+        }
+
+        final StudentQueryResults partial = analytics.evaluateQueriesParallelStream(students,
+                StudentQuery.NUMBER_OF_FAILED_STUDENTS_OLDER_THAN_20);
+        assertEquals(refCount, partial.getNumberOfFailedStudentsOlderThan20());
+        try {
+            partial.getAverageAgeOfEnrolledStudents();
+            fail("Expected a query outside the batch to have no answer");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /*
+     * Test that incrementally maintained aggregates match a full recomputation after concurrent changes.
+     */
+    public void testIncrementalAnalytics() {
+        final Student[] students = generateStudentData();
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final IncrementalStudentAnalytics incremental = new IncrementalStudentAnalytics(students);
+        assertEquals(students.length, incremental.size());
+        assertIncrementalMatches(analytics, students, incremental);
+
+        // Delete every 7th student and flip the enrollment of every 5th, from many threads at once
+        final Random r = new Random(456);
+        final Student[] updated = new Student[students.length];
+        for (int i = 0; i < students.length; i++) {
+            final Student s = students[i];
+            updated[i] = i % 5 == 0 ? new Student(firstNames[r.nextInt(firstNames.length)], s.getLastName(),
+                    s.getAge(), s.getGrade(), !s.checkIsCurrent()) : s;
+        }
+        IntStream.range(0, students.length).parallel().forEach(i -> {
+            if (i % 7 == 0) {
+                assertSame(students[i], incremental.delete(i));
+            } else if (i % 5 == 0) {
+                assertSame(students[i], incremental.update(i, updated[i]));
+            }
+        });
+
+        final Student[] remaining = IntStream.range(0, students.length)
+                .filter(i -> i % 7 != 0)
+                .mapToObj(i -> updated[i])
+                .toArray(Student[]::new);
+        assertEquals(remaining.length, incremental.size());
+        assertIncrementalMatches(analytics, remaining, incremental);
+        assertNull(incremental.delete(0));
+
+        // A tie goes to the name that sorts first, as in the other engines
+        final Student[] tied = new Student[4];
+        for (int s = 0; s < tied.length; s++) {
+            tied[s] = new Student(s % 2 == 0 ? "Zoe" : "Anna", "Smith", 30.0, 50, false);
+        }
+        final IncrementalStudentAnalytics tiedIncremental = new IncrementalStudentAnalytics(tied);
+        assertEquals("Anna", tiedIncremental.getMostCommonFirstNameOfInactiveStudents());
+        tiedIncremental.delete(1);
+        assertEquals("Zoe", tiedIncremental.getMostCommonFirstNameOfInactiveStudents());
+        tiedIncremental.insert(4, tied[1]);
+        assertEquals("Anna", tiedIncremental.getMostCommonFirstNameOfInactiveStudents());
+    }
+
+    private void assertIncrementalMatches(final StudentAnalytics analytics, final Student[] students,
+            final IncrementalStudentAnalytics incremental) {
+        assertEquals(analytics.averageAgeOfEnrolledStudentsImperative(students),
+                incremental.getAverageAgeOfEnrolledStudents(), 1E-5);
+        assertEquals(analytics.mostCommonFirstNameOfInactiveStudentsImperative(students),
+                incremental.getMostCommonFirstNameOfInactiveStudents());
+        assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Imperative(students),
+                incremental.getNumberOfFailedStudentsOlderThan20());
+    }
+
+    /*
+     * Test the block-aligned spliterator and the analytics answered from block statistics.
+     */
+    public void testStudentBlocks() {
+        final Student[] students = generateStudentData();
+        final StudentAnalytics analytics = new StudentAnalytics();
+        final StudentBlocks blocks = new StudentBlocks(students, 1000);
+        assertEquals(1008, blocks.getBlockSize());
+        assertEquals((students.length + 1007) / 1008, blocks.getBlockCount());
+
+        final Spliterator<Student> spliterator = new StudentSpliterator(students, 0, students.length, 1008);
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        final Spliterator<Student> prefix = spliterator.trySplit();
+        assertEquals(0, prefix.estimateSize() % 1008);
+        assertEquals(students.length, prefix.estimateSize() + spliterator.estimateSize());
+        assertNull(new StudentSpliterator(students, 0, 1008, 1008).trySplit());
+        assertEquals(students.length, blocks.stream().count());
+
+        assertEquals(analytics.averageAgeOfEnrolledStudentsImperative(students),
+                analytics.averageAgeOfEnrolledStudentsParallelStream(blocks), 1E-5);
+        assertEquals(analytics.countNumberOfFailedStudentsOlderThan20Imperative(students),
+                analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(blocks));
+    }
+
+    /*
+     * Test that range counts pruned with block zone maps match a full scan, on unsorted and sorted data.
+     */
+    public void testZoneMapPruning() {
+        final Student[] students = generateStudentData();
+        final Student[] sortedByAge = students.clone();
+        Arrays.sort(sortedByAge, Comparator.comparingDouble(Student::getAge));
+        final StudentAnalytics analytics = new StudentAnalytics();
+
+        for (Student[] data : new Student[][] {students, sortedByAge}) {
+            final StudentBlocks blocks = new StudentBlocks(data);
+            final int failed = analytics.countNumberOfFailedStudentsOlderThan20Imperative(data);
+            assertEquals(failed, analytics.countNumberOfFailedStudentsOlderThan20Imperative(blocks));
+            assertEquals(failed, analytics.countNumberOfFailedStudentsOlderThan20ParallelStream(blocks));
+
+            for (boolean current : new boolean[] {true, false}) {
+                final int expected = (int) Arrays.stream(data)
+                        .filter(s -> s.checkIsCurrent() == current && s.getAge() >= 30.0 && s.getAge() <= 40.0
+                                && s.getGrade() >= 50 && s.getGrade() <= 100)
+                        .count();
+                assertEquals(expected, analytics.countStudentsInRangeImperative(blocks, current, 30.0, 40.0, 50, 100));
+                assertEquals(expected,
+                        analytics.countStudentsInRangeParallelStream(blocks, current, 30.0, 40.0, 50, 100));
+            }
+            assertEquals(0, analytics.countStudentsInRangeParallelStream(blocks, false, 200.0, 300.0, 0, 100));
+        }
+    }
 }
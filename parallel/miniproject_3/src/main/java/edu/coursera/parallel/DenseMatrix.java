@@ -0,0 +1,198 @@
+package edu.coursera.parallel;
+
+/**
+ * Represents a two-dimensional matrix stored in a flat row-major array.
+ * Element (row, col) is stored at offset + row * stride + col, so a matrix
+ * may be a view of a rectangular region of a larger matrix that shares its
+ * array, created by submatrix without copying.
+ */
+public final class DenseMatrix {
+    /**
+     * The array holding the values of the matrix, possibly shared with other
+     * matrices.
+     */
+    private final double[] values;
+    /**
+     * Index of element (0, 0) in values.
+     */
+    private final int offset;
+    /**
+     * The number of rows in the matrix.
+     */
+    private final int nrows;
+    /**
+     * The number of columns in the matrix.
+     */
+    private final int ncols;
+    /**
+     * Distance in values between the starts of two consecutive rows.
+     */
+    private final int stride;
+
+    /**
+     * Constructor, creating a matrix of zeros.
+     *
+     * @param setNrows Number of rows
+     * @param setNcols Number of columns
+     */
+    public DenseMatrix(final int setNrows, final int setNcols) {
+        this(new double[setNrows * setNcols], 0, setNrows, setNcols, setNcols);
+    }
+
+    /**
+     * Constructor, copying a two-dimensional array.
+     *
+     * @param rows The rows of the matrix, all of the same length
+     */
+    public DenseMatrix(final double[][] rows) {
+        this(rows.length, rows.length == 0 ? 0 : rows[0].length);
+        for (int i = 0; i < nrows; i++) {
+            System.arraycopy(rows[i], 0, values, i * ncols, ncols);
+        }
+    }
+
+    /**
+     * Constructor, wrapping an existing array without copying it.
+     *
+     * @param setValues Array holding the values
+     * @param setOffset Index of element (0, 0) in setValues
+     * @param setNrows  Number of rows
+     * @param setNcols  Number of columns
+     * @param setStride Distance in setValues between the starts of two
+     *                  consecutive rows, at least setNcols
+     */
+    public DenseMatrix(final double[] setValues, final int setOffset,
+            final int setNrows, final int setNcols, final int setStride) {
+        if (setNrows < 0 || setNcols < 0 || setStride < setNcols
+                || setOffset < 0 || (setNrows > 0 && setNcols > 0
+                && (long) setOffset + (long) (setNrows - 1) * setStride
+                        + setNcols > setValues.length)) {
+            throw new IllegalArgumentException("Invalid " + setNrows + "x"
+                    + setNcols + " matrix with offset " + setOffset
+                    + " and stride " + setStride + " in an array of length "
+                    + setValues.length);
+        }
+        this.values = setValues;
+        this.offset = setOffset;
+        this.nrows = setNrows;
+        this.ncols = setNcols;
+        this.stride = setStride;
+    }
+
+    /**
+     * Create a view of a rectangular region of this matrix. The view shares
+     * this matrix's values, so writes through either are seen by both.
+     *
+     * @param row      First row of the region
+     * @param col      First column of the region
+     * @param setNrows Number of rows in the region
+     * @param setNcols Number of columns in the region
+     * @return The view
+     */
+    public DenseMatrix submatrix(final int row, final int col,
+            final int setNrows, final int setNcols) {
+        if (row < 0 || col < 0 || setNrows < 0 || setNcols < 0
+                || row + setNrows > nrows || col + setNcols > ncols) {
+            throw new IndexOutOfBoundsException("Region " + setNrows + "x"
+                    + setNcols + " at (" + row + ", " + col
+                    + ") is outside a " + nrows + "x" + ncols + " matrix");
+        }
+        return new DenseMatrix(values, getOffsetOfRow(row) + col, setNrows,
+                setNcols, stride);
+    }
+
+    /**
+     * Set the value at (row, col) to the specified value.
+     *
+     * @param row Row index
+     * @param col Column index
+     * @param val Value
+     */
+    public void set(final int row, final int col, final double val) {
+        values[getOffsetOfRow(row) + col] = val;
+    }
+
+    /**
+     * Increment the value at (row, col) by the specified value.
+     *
+     * @param row Row index
+     * @param col Column index
+     * @param val Increment value
+     */
+    public void incr(final int row, final int col, final double val) {
+        values[getOffsetOfRow(row) + col] += val;
+    }
+
+    /**
+     * Fetch the value currently stored at (row, col).
+     *
+     * @param row Row index
+     * @param col Column index
+     * @return The value stored at (row, col)
+     */
+    public double get(final int row, final int col) {
+        return values[getOffsetOfRow(row) + col];
+    }
+
+    /**
+     * Fetch the number of rows in this matrix.
+     *
+     * @return # of rows
+     */
+    public int getNRows() {
+        return nrows;
+    }
+
+    /**
+     * Fetch the number of columns in this matrix.
+     *
+     * @return # of columns
+     */
+    public int getNCols() {
+        return ncols;
+    }
+
+    /**
+     * Fetch the distance in the values array between the starts of two
+     * consecutive rows.
+     *
+     * @return Row stride
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    /**
+     * Get the offset in the flattened values array of the first element in the
+     * specified row.
+     *
+     * @param row Row to get the offset of
+     * @return Row offset
+     */
+    public int getOffsetOfRow(final int row) {
+        return offset + row * stride;
+    }
+
+    /**
+     * Get the raw, one-dimensional values array used to store this matrix's
+     * values, possibly shared with other matrices.
+     *
+     * @return Raw values array
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Copy this matrix into a new two-dimensional array.
+     *
+     * @return The rows of this matrix
+     */
+    public double[][] toArray() {
+        final double[][] rows = new double[nrows][ncols];
+        for (int i = 0; i < nrows; i++) {
+            System.arraycopy(values, getOffsetOfRow(i), rows[i], 0, ncols);
+        }
+        return rows;
+    }
+}
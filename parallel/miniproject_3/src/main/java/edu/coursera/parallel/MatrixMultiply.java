@@ -1,12 +1,42 @@
 package edu.coursera.parallel;
 
+import java.util.Arrays;
+
+import static edu.rice.pcdp.PCDP.async;
+import static edu.rice.pcdp.PCDP.finish;
+import static edu.rice.pcdp.PCDP.forall;
+import static edu.rice.pcdp.PCDP.forall2d;
 import static edu.rice.pcdp.PCDP.forall2dChunked;
 import static edu.rice.pcdp.PCDP.forseq2d;
+import static edu.rice.pcdp.PCDP.numThreads;
 
 /**
  * Wrapper class for implementing matrix multiply efficiently in parallel.
  */
 public final class MatrixMultiply {
+    /**
+     * Number of rows and columns in each output tile computed by one task of
+     * blockedMatrixMultiply.
+     */
+    static final int TILE_SIZE = 64;
+    /**
+     * Number of terms of each dot product accumulated per pass over an output
+     * tile. The rows of A and of the packed B they read, 2 * TILE_SIZE *
+     * K_BLOCK_SIZE doubles, stay in the L2 cache for the whole pass.
+     */
+    static final int K_BLOCK_SIZE = 256;
+    /**
+     * Default size below which strassenMatrixMultiply stops recursing and
+     * multiplies with the blocked kernel.
+     */
+    public static final int DEFAULT_STRASSEN_CUTOFF = 256;
+    /**
+     * Number of row ranges per PCDP worker thread processed by the sparse
+     * multiplies, so that ranges left unbalanced by long rows can still be
+     * load balanced.
+     */
+    static final int SPARSE_PARTS_PER_WORKER = 4;
+
     /**
      * Default constructor.
      */
@@ -52,4 +82,764 @@ public final class MatrixMultiply {
             }
         });
     }
+
+    /**
+     * Perform a rectangular matrix multiply (A x B = C) sequentially over flat
+     * row-major matrices. Each cell of C sums its terms in the same order as
+     * seqMatrixMultiply, and no memory is allocated, so views of larger
+     * matrices can be multiplied in place.
+     *
+     * @param A An input matrix with dimensions MxK
+     * @param B An input matrix with dimensions KxN
+     * @param C The output matrix with dimensions MxN, not overlapping A or B
+     */
+    public static void seqMatrixMultiply(final DenseMatrix A,
+            final DenseMatrix B, final DenseMatrix C) {
+        checkDimensions(A, B, C);
+        multiplyDenseTile(A, B, C, 0, C.getNRows(), 0, C.getNCols());
+    }
+
+    /**
+     * Perform a rectangular matrix multiply (A x B = C) in parallel over flat
+     * row-major matrices, one TILE_SIZE x TILE_SIZE tile of C per task. The
+     * results are identical to those of the sequential version, and no
+     * memory is allocated besides the tasks.
+     *
+     * @param A An input matrix with dimensions MxK
+     * @param B An input matrix with dimensions KxN
+     * @param C The output matrix with dimensions MxN, not overlapping A or B
+     */
+    public static void parMatrixMultiply(final DenseMatrix A,
+            final DenseMatrix B, final DenseMatrix C) {
+        checkDimensions(A, B, C);
+        final int M = C.getNRows();
+        final int N = C.getNCols();
+        if (M == 0 || N == 0) {
+            return;
+        }
+        forall2d(0, (M - 1) / TILE_SIZE, 0, (N - 1) / TILE_SIZE, (ti, tj) ->
+                multiplyDenseTile(A, B, C, ti * TILE_SIZE,
+                        Math.min((ti + 1) * TILE_SIZE, M), tj * TILE_SIZE,
+                        Math.min((tj + 1) * TILE_SIZE, N)));
+    }
+
+    /**
+     * Check that the dimensions of the operands of a rectangular multiply
+     * agree.
+     *
+     * @param A The left input matrix
+     * @param B The right input matrix
+     * @param C The output matrix
+     */
+    private static void checkDimensions(final DenseMatrix A,
+            final DenseMatrix B, final DenseMatrix C) {
+        if (A.getNCols() != B.getNRows() || C.getNRows() != A.getNRows()
+                || C.getNCols() != B.getNCols()) {
+            throw new IllegalArgumentException("Cannot multiply "
+                    + A.getNRows() + "x" + A.getNCols() + " by "
+                    + B.getNRows() + "x" + B.getNCols() + " into "
+                    + C.getNRows() + "x" + C.getNCols());
+        }
+    }
+
+    /**
+     * Computes rows i0 to i1 and columns j0 to j1 of C = A x B. Rows of B are
+     * streamed K_BLOCK_SIZE at a time, each scaled by an element of A and
+     * added to a row of the tile, so every access is sequential in memory.
+     *
+     * @param A  The left input matrix
+     * @param B  The right input matrix
+     * @param C  The output matrix
+     * @param i0 First row of the tile
+     * @param i1 Row after the last row of the tile
+     * @param j0 First column of the tile
+     * @param j1 Column after the last column of the tile
+     */
+    private static void multiplyDenseTile(final DenseMatrix A,
+            final DenseMatrix B, final DenseMatrix C, final int i0,
+            final int i1, final int j0, final int j1) {
+        final double[] a = A.getValues();
+        final double[] b = B.getValues();
+        final double[] c = C.getValues();
+        final int K = A.getNCols();
+        for (int i = i0; i < i1; i++) {
+            final int cRow = C.getOffsetOfRow(i);
+            for (int j = j0; j < j1; j++) {
+                c[cRow + j] = 0.0;
+            }
+        }
+        for (int k0 = 0; k0 < K; k0 += K_BLOCK_SIZE) {
+            final int k1 = Math.min(k0 + K_BLOCK_SIZE, K);
+            for (int i = i0; i < i1; i++) {
+                final int aRow = A.getOffsetOfRow(i);
+                final int cRow = C.getOffsetOfRow(i);
+                for (int k = k0; k < k1; k++) {
+                    final double x = a[aRow + k];
+                    final int bRow = B.getOffsetOfRow(k);
+                    for (int j = j0; j < j1; j++) {
+                        c[cRow + j] += x * b[bRow + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Perform a sparse matrix-vector multiply (A x x = y) in parallel. The
+     * rows of A are divided into ranges holding about the same number of
+     * nonzeros, one range per task.
+     *
+     * @param A A sparse input matrix with dimensions MxN
+     * @param x An input vector of length N
+     * @param y The output vector of length M
+     */
+    public static void parMatrixVectorMultiply(final SparseMatrix A,
+            final double[] x, final double[] y) {
+        if (x.length != A.getNCols() || y.length != A.getNRows()) {
+            throw new IllegalArgumentException("Cannot multiply "
+                    + A.getNRows() + "x" + A.getNCols() + " by a vector of "
+                    + x.length + " into a vector of " + y.length);
+        }
+        final int[] rowOffsets = A.getRowOffsets();
+        final int[] colIndices = A.getColIndices();
+        final double[] values = A.getValues();
+        final int[] bounds = partitionSparseRows(A);
+        forall(0, bounds.length - 2, p -> {
+            for (int i = bounds[p]; i < bounds[p + 1]; i++) {
+                double sum = 0.0;
+                for (int nz = rowOffsets[i]; nz < rowOffsets[i + 1]; nz++) {
+                    sum += values[nz] * x[colIndices[nz]];
+                }
+                y[i] = sum;
+            }
+        });
+    }
+
+    /**
+     * Perform a sparse-dense matrix multiply (A x B = C) in parallel. Each
+     * nonzero A[i][k] adds a scaled copy of row k of B to row i of C, and the
+     * rows of A are divided into ranges holding about the same number of
+     * nonzeros, one range per task.
+     *
+     * @param A A sparse input matrix with dimensions MxK
+     * @param B An input matrix with dimensions KxN
+     * @param C The output matrix with dimensions MxN, not overlapping B
+     */
+    public static void parMatrixMultiply(final SparseMatrix A,
+            final DenseMatrix B, final DenseMatrix C) {
+        if (A.getNCols() != B.getNRows() || C.getNRows() != A.getNRows()
+                || C.getNCols() != B.getNCols()) {
+            throw new IllegalArgumentException("Cannot multiply "
+                    + A.getNRows() + "x" + A.getNCols() + " by "
+                    + B.getNRows() + "x" + B.getNCols() + " into "
+                    + C.getNRows() + "x" + C.getNCols());
+        }
+        final int N = C.getNCols();
+        final int[] rowOffsets = A.getRowOffsets();
+        final int[] colIndices = A.getColIndices();
+        final double[] values = A.getValues();
+        final double[] b = B.getValues();
+        final double[] c = C.getValues();
+        final int[] bounds = partitionSparseRows(A);
+        forall(0, bounds.length - 2, p -> {
+            for (int i = bounds[p]; i < bounds[p + 1]; i++) {
+                final int cRow = C.getOffsetOfRow(i);
+                Arrays.fill(c, cRow, cRow + N, 0.0);
+                for (int nz = rowOffsets[i]; nz < rowOffsets[i + 1]; nz++) {
+                    final double v = values[nz];
+                    final int bRow = B.getOffsetOfRow(colIndices[nz]);
+                    for (int j = 0; j < N; j++) {
+                        c[cRow + j] += v * b[bRow + j];
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Perform a two-dimensional matrix multiply (A x B = C) in parallel,
+     * treating A as sparse. A is converted to CSR form and only its nonzeros
+     * are multiplied, so the work is proportional to the number of nonzeros
+     * of A times N instead of N^3. Worthwhile when most of A is zero.
+     *
+     * @param A An input matrix with dimensions NxN, mostly zeros
+     * @param B An input matrix with dimensions NxN
+     * @param C The output matrix
+     * @param N Size of each dimension of the input matrices
+     */
+    public static void sparseMatrixMultiply(final double[][] A,
+            final double[][] B, final double[][] C, final int N) {
+        final SparseMatrix sparseA = SparseMatrix.fromDense(A);
+        final int[] rowOffsets = sparseA.getRowOffsets();
+        final int[] colIndices = sparseA.getColIndices();
+        final double[] values = sparseA.getValues();
+        final int[] bounds = partitionSparseRows(sparseA);
+        forall(0, bounds.length - 2, p -> {
+            for (int i = bounds[p]; i < bounds[p + 1]; i++) {
+                final double[] c = C[i];
+                Arrays.fill(c, 0, N, 0.0);
+                for (int nz = rowOffsets[i]; nz < rowOffsets[i + 1]; nz++) {
+                    final double v = values[nz];
+                    final double[] b = B[colIndices[nz]];
+                    for (int j = 0; j < N; j++) {
+                        c[j] += v * b[j];
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Divides the rows of a sparse matrix into SPARSE_PARTS_PER_WORKER ranges
+     * per worker thread of the PCDP runtime, which runs the ranges, holding
+     * about the same number of nonzeros.
+     *
+     * @param A The sparse matrix
+     * @return The bounds of the ranges, range p being rows bounds[p] to
+     *         bounds[p + 1]
+     */
+    private static int[] partitionSparseRows(final SparseMatrix A) {
+        return A.partitionRows(SPARSE_PARTS_PER_WORKER * numThreads());
+    }
+
+    /**
+     * Perform a two-dimensional matrix multiply (A x B = C) in parallel with a
+     * cache-blocked kernel.
+     * <p>
+     * B is first packed, transposed, into one contiguous array, so every
+     * C[i][j] becomes a dot product of two contiguous rows instead of a walk
+     * down a column of B. C is then divided into TILE_SIZE x TILE_SIZE tiles
+     * computed in parallel. Each tile accumulates its dot products
+     * K_BLOCK_SIZE terms at a time, so the parts of A and B it reads stay in
+     * cache, and computes 2x2 output cells at a time to reuse every load
+     * twice. The terms of each dot product are summed in a different order
+     * than in seqMatrixMultiply, so the results may differ in the last bits.
+     *
+     * @param A An input matrix with dimensions NxN
+     * @param B An input matrix with dimensions NxN
+     * @param C The output matrix
+     * @param N Size of each dimension of the input matrices
+     */
+    public static void blockedMatrixMultiply(final double[][] A,
+            final double[][] B, final double[][] C, final int N) {
+        if (N == 0) {
+            return;
+        }
+        final double[] packedB = packTransposed(B, N);
+        final int nTiles = (N + TILE_SIZE - 1) / TILE_SIZE;
+        forall2d(0, nTiles - 1, 0, nTiles - 1,
+                (ti, tj) -> multiplyOutputTile(A, packedB, C, N, ti, tj));
+    }
+
+    /**
+     * Copies the transpose of a square matrix into a flat row-major array, in
+     * parallel, one TILE_SIZE x TILE_SIZE tile per task.
+     *
+     * @param B The matrix to pack
+     * @param N Size of each dimension of B
+     * @return An array holding B[k][j] at index j * N + k
+     */
+    static double[] packTransposed(final double[][] B, final int N) {
+        final double[] packed = new double[N * N];
+        final int nTiles = (N + TILE_SIZE - 1) / TILE_SIZE;
+        forall2d(0, nTiles - 1, 0, nTiles - 1,
+                (tk, tj) -> packTile(B, packed, N, tk, tj));
+        return packed;
+    }
+
+    /**
+     * Copies the transpose of one tile of a square matrix into a flat
+     * row-major array.
+     *
+     * @param B      The matrix to pack
+     * @param packed The array holding B[k][j] at index j * N + k
+     * @param N      Size of each dimension of B
+     * @param tk     Tile row, in tiles
+     * @param tj     Tile column, in tiles
+     */
+    private static void packTile(final double[][] B, final double[] packed,
+            final int N, final int tk, final int tj) {
+        final int k1 = Math.min((tk + 1) * TILE_SIZE, N);
+        final int j1 = Math.min((tj + 1) * TILE_SIZE, N);
+        for (int k = tk * TILE_SIZE; k < k1; k++) {
+            final double[] row = B[k];
+            for (int j = tj * TILE_SIZE; j < j1; j++) {
+                packed[j * N + k] = row[j];
+            }
+        }
+    }
+
+    /**
+     * Computes one TILE_SIZE x TILE_SIZE tile of C.
+     *
+     * @param A       The left input matrix
+     * @param packedB The right input matrix, packed by packTransposed
+     * @param C       The output matrix
+     * @param N       Size of each dimension of the matrices
+     * @param ti      Tile row, in tiles
+     * @param tj      Tile column, in tiles
+     */
+    private static void multiplyOutputTile(final double[][] A,
+            final double[] packedB, final double[][] C, final int N,
+            final int ti, final int tj) {
+        final int i0 = ti * TILE_SIZE;
+        final int j0 = tj * TILE_SIZE;
+        final int i1 = Math.min(i0 + TILE_SIZE, N);
+        final int j1 = Math.min(j0 + TILE_SIZE, N);
+        for (int i = i0; i < i1; i++) {
+            for (int j = j0; j < j1; j++) {
+                C[i][j] = 0.0;
+            }
+        }
+        for (int k0 = 0; k0 < N; k0 += K_BLOCK_SIZE) {
+            multiplyTile(A, packedB, C, N, i0, i1, j0, j1, k0,
+                    Math.min(k0 + K_BLOCK_SIZE, N));
+        }
+    }
+
+    /**
+     * Adds the terms k0 to k1 of the dot products of one output tile to C.
+     *
+     * @param A       The left input matrix
+     * @param packedB The right input matrix, packed by packTransposed
+     * @param C       The output matrix
+     * @param N       Size of each dimension of the matrices
+     * @param i0      First row of the tile
+     * @param i1      Row after the last row of the tile
+     * @param j0      First column of the tile
+     * @param j1      Column after the last column of the tile
+     * @param k0      First term to add
+     * @param k1      Term after the last term to add
+     */
+    private static void multiplyTile(final double[][] A, final double[] packedB,
+            final double[][] C, final int N, final int i0, final int i1,
+            final int j0, final int j1, final int k0, final int k1) {
+        int i = i0;
+        for (; i + 1 < i1; i += 2) {
+            final double[] a0 = A[i];
+            final double[] a1 = A[i + 1];
+            final double[] c0 = C[i];
+            final double[] c1 = C[i + 1];
+            int j = j0;
+            for (; j + 1 < j1; j += 2) {
+                final int b0 = j * N;
+                final int b1 = b0 + N;
+                double c00 = 0.0;
+                double c01 = 0.0;
+                double c10 = 0.0;
+                double c11 = 0.0;
+                for (int k = k0; k < k1; k++) {
+                    final double x0 = a0[k];
+                    final double x1 = a1[k];
+                    final double y0 = packedB[b0 + k];
+                    final double y1 = packedB[b1 + k];
+                    c00 += x0 * y0;
+                    c01 += x0 * y1;
+                    c10 += x1 * y0;
+                    c11 += x1 * y1;
+                }
+                c0[j] += c00;
+                c0[j + 1] += c01;
+                c1[j] += c10;
+                c1[j + 1] += c11;
+            }
+            if (j < j1) {
+                c0[j] += dot(a0, packedB, j * N, k0, k1);
+                c1[j] += dot(a1, packedB, j * N, k0, k1);
+            }
+        }
+        if (i < i1) {
+            for (int j = j0; j < j1; j++) {
+                C[i][j] += dot(A[i], packedB, j * N, k0, k1);
+            }
+        }
+    }
+
+    /**
+     * Computes the terms k0 to k1 of the dot product of a row of A and a
+     * packed column of B.
+     *
+     * @param a       The row of A
+     * @param packedB The right input matrix, packed by packTransposed
+     * @param offset  Index of the column in packedB
+     * @param k0      First term to add
+     * @param k1      Term after the last term to add
+     * @return The partial dot product
+     */
+    private static double dot(final double[] a, final double[] packedB,
+            final int offset, final int k0, final int k1) {
+        double sum = 0.0;
+        for (int k = k0; k < k1; k++) {
+            sum += a[k] * packedB[offset + k];
+        }
+        return sum;
+    }
+
+    /**
+     * Perform a two-dimensional matrix multiply (A x B = C) in parallel with
+     * Strassen's algorithm, recursing until the matrices are at most
+     * DEFAULT_STRASSEN_CUTOFF wide.
+     *
+     * @param A An input matrix with dimensions NxN
+     * @param B An input matrix with dimensions NxN
+     * @param C The output matrix
+     * @param N Size of each dimension of the input matrices
+     */
+    public static void strassenMatrixMultiply(final double[][] A,
+            final double[][] B, final double[][] C, final int N) {
+        strassenMatrixMultiply(A, B, C, N, DEFAULT_STRASSEN_CUTOFF);
+    }
+
+    /**
+     * Perform a two-dimensional matrix multiply (A x B = C) in parallel with
+     * Strassen's algorithm.
+     * <p>
+     * Each level splits the matrices into quadrants, viewed in place without
+     * copying, and computes the product from 7 half-size products instead of
+     * 8, run as PCDP async tasks. Each half-size product adds or subtracts
+     * the quadrants it needs into a workspace of its own and multiplies them
+     * into the same workspace, and the products are combined directly into
+     * the quadrants of the output. Once the matrices are at most cutoff wide
+     * they are multiplied sequentially. N is padded with zeros to the
+     * smallest leaf size times a power of two, so any N is supported with
+     * less than one leaf row and column of padding per level; when N is
+     * already such a size the matrices are used as they are, and the product
+     * is written straight into C.
+     * <p>
+     * Strassen's algorithm adds and subtracts whole submatrices before
+     * multiplying them, so its rounding error grows faster with N than that
+     * of seqMatrixMultiply; relativeError measures it for a given workload.
+     *
+     * @param A      An input matrix with dimensions NxN
+     * @param B      An input matrix with dimensions NxN
+     * @param C      The output matrix, not the same matrix as A or B
+     * @param N      Size of each dimension of the input matrices
+     * @param cutoff Largest size multiplied without recursing
+     */
+    public static void strassenMatrixMultiply(final double[][] A,
+            final double[][] B, final double[][] C, final int N,
+            final int cutoff) {
+        if (cutoff < 1) {
+            throw new IllegalArgumentException("Cutoff must be positive: "
+                    + cutoff);
+        }
+        int leaf = N;
+        int levels = 0;
+        while (leaf > cutoff) {
+            leaf = (leaf + 1) / 2;
+            levels++;
+        }
+        final int padded = leaf << levels;
+        if (padded == N) {
+            strassen(new Block(A, 0, 0), new Block(B, 0, 0),
+                    new Block(C, 0, 0), N, cutoff);
+            return;
+        }
+        final double[][] product = new double[padded][padded];
+        strassen(new Block(pad(A, N, padded), 0, 0),
+                new Block(pad(B, N, padded), 0, 0),
+                new Block(product, 0, 0), padded, cutoff);
+        for (int i = 0; i < N; i++) {
+            System.arraycopy(product[i], 0, C[i], 0, N);
+        }
+    }
+
+    /**
+     * Computes the normwise relative error of a product, the largest absolute
+     * difference from the reference divided by the largest absolute value in
+     * the reference.
+     *
+     * @param expected The reference product, e.g. from seqMatrixMultiply
+     * @param actual   The product to check
+     * @param N        Size of each dimension of the matrices
+     * @return The relative error, or the absolute error if expected is zero
+     */
+    public static double relativeError(final double[][] expected,
+            final double[][] actual, final int N) {
+        double maxError = 0.0;
+        double maxValue = 0.0;
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                maxError = Math.max(maxError,
+                        Math.abs(expected[i][j] - actual[i][j]));
+                maxValue = Math.max(maxValue, Math.abs(expected[i][j]));
+            }
+        }
+        return maxValue == 0.0 ? maxError : maxError / maxValue;
+    }
+
+    /**
+     * Copies a square matrix into the top left corner of a larger square
+     * matrix of zeros.
+     *
+     * @param M      The matrix to copy
+     * @param N      Size of each dimension of M
+     * @param padded Size of each dimension of the copy
+     * @return The padded copy
+     */
+    private static double[][] pad(final double[][] M, final int N,
+            final int padded) {
+        final double[][] copy = new double[padded][padded];
+        for (int i = 0; i < N; i++) {
+            System.arraycopy(M[i], 0, copy[i], 0, N);
+        }
+        return copy;
+    }
+
+    /**
+     * Multiplies two square matrices whose size is the leaf size times a
+     * power of two with Strassen's algorithm, one level per call.
+     *
+     * @param A      The left input matrix
+     * @param B      The right input matrix
+     * @param C      The output matrix, not overlapping A or B
+     * @param n      Size of each dimension of the matrices
+     * @param cutoff Largest size multiplied without recursing
+     */
+    private static void strassen(final Block A, final Block B, final Block C,
+            final int n, final int cutoff) {
+        if (n <= cutoff) {
+            multiplyLeaf(A, B, C, n);
+            return;
+        }
+        final int h = n / 2;
+        final double[][][] products = new double[7][][];
+        finish(() -> {
+            for (int p = 0; p < 7; p++) {
+                final int index = p;
+                async(() -> {
+                    products[index] = strassenProduct(index, A, B, h, cutoff);
+                });
+            }
+        });
+
+        final double[][] p1 = products[0];
+        final double[][] p2 = products[1];
+        final double[][] p3 = products[2];
+        final double[][] p4 = products[3];
+        final double[][] p5 = products[4];
+        final double[][] p6 = products[5];
+        final double[][] p7 = products[6];
+        final int m = 2 * h;
+        for (int i = 0; i < h; i++) {
+            final double[] c1 = C.rows[C.row + i];
+            final double[] c2 = C.rows[C.row + h + i];
+            final int c11 = C.col;
+            final int c12 = C.col + h;
+            for (int j = 0; j < h; j++) {
+                c1[c11 + j] = p1[i][m + j] + p4[i][m + j] - p5[i][m + j]
+                    + p7[i][m + j];
+                c1[c12 + j] = p3[i][m + j] + p5[i][m + j];
+                c2[c11 + j] = p2[i][m + j] + p4[i][m + j];
+                c2[c12 + j] = p1[i][m + j] - p2[i][m + j] + p3[i][m + j]
+                    + p6[i][m + j];
+            }
+        }
+    }
+
+    /**
+     * Computes one of the 7 half-size products of a level of Strassen's
+     * algorithm into a new workspace of h rows: columns 0 to h hold the left
+     * operand if it is a sum of quadrants, columns h to 2h the right operand
+     * if it is, and columns 2h to 3h the product.
+     *
+     * @param index  Which product to compute, 0 for M1 to 6 for M7
+     * @param A      The left input matrix
+     * @param B      The right input matrix
+     * @param h      Size of each dimension of the quadrants
+     * @param cutoff Largest size multiplied without recursing
+     * @return The workspace holding the product
+     */
+    private static double[][] strassenProduct(final int index, final Block A,
+            final Block B, final int h, final int cutoff) {
+        final double[][] work = new double[h][3 * h];
+        final Block a11 = A.quadrant(0, 0, h);
+        final Block a12 = A.quadrant(0, 1, h);
+        final Block a21 = A.quadrant(1, 0, h);
+        final Block a22 = A.quadrant(1, 1, h);
+        final Block b11 = B.quadrant(0, 0, h);
+        final Block b12 = B.quadrant(0, 1, h);
+        final Block b21 = B.quadrant(1, 0, h);
+        final Block b22 = B.quadrant(1, 1, h);
+        final Block left;
+        final Block right;
+        switch (index) {
+            case 0:
+                left = add(a11, a22, 1, work, 0, h);
+                right = add(b11, b22, 1, work, h, h);
+                break;
+            case 1:
+                left = add(a21, a22, 1, work, 0, h);
+                right = b11;
+                break;
+            case 2:
+                left = a11;
+                right = add(b12, b22, -1, work, h, h);
+                break;
+            case 3:
+                left = a22;
+                right = add(b21, b11, -1, work, h, h);
+                break;
+            case 4:
+                left = add(a11, a12, 1, work, 0, h);
+                right = b22;
+                break;
+            case 5:
+                left = add(a21, a11, -1, work, 0, h);
+                right = add(b11, b12, 1, work, h, h);
+                break;
+            default:
+                left = add(a12, a22, -1, work, 0, h);
+                right = add(b21, b22, 1, work, h, h);
+                break;
+        }
+        strassen(left, right, new Block(work, 0, 2 * h), h, cutoff);
+        return work;
+    }
+
+    /**
+     * Adds or subtracts two square matrices into columns col to col + n of
+     * the first n rows of a workspace.
+     *
+     * @param X    The first matrix
+     * @param Y    The second matrix
+     * @param sign 1 to compute X + Y, -1 to compute X - Y
+     * @param work The workspace
+     * @param col  First column of the workspace to write
+     * @param n    Size of each dimension of the matrices
+     * @return A view of the workspace holding X + sign * Y
+     */
+    private static Block add(final Block X, final Block Y, final double sign,
+            final double[][] work, final int col, final int n) {
+        for (int i = 0; i < n; i++) {
+            final double[] x = X.rows[X.row + i];
+            final double[] y = Y.rows[Y.row + i];
+            final double[] row = work[i];
+            for (int j = 0; j < n; j++) {
+                row[col + j] = x[X.col + j] + sign * y[Y.col + j];
+            }
+        }
+        return new Block(work, 0, col);
+    }
+
+    /**
+     * Multiplies two square matrices sequentially with the kernel of
+     * blockedMatrixMultiply: B is packed, transposed, into a contiguous
+     * array, and C is computed 2x2 cells at a time, TILE_SIZE columns and
+     * K_BLOCK_SIZE terms of the dot products at a time.
+     *
+     * @param A The left input matrix
+     * @param B The right input matrix
+     * @param C The output matrix, not overlapping A or B
+     * @param n Size of each dimension of the matrices
+     */
+    private static void multiplyLeaf(final Block A, final Block B,
+            final Block C, final int n) {
+        final double[] packedB = new double[n * n];
+        for (int k = 0; k < n; k++) {
+            final double[] b = B.rows[B.row + k];
+            for (int j = 0; j < n; j++) {
+                packedB[j * n + k] = b[B.col + j];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            Arrays.fill(C.rows[C.row + i], C.col, C.col + n, 0.0);
+        }
+        for (int j0 = 0; j0 < n; j0 += TILE_SIZE) {
+            final int j1 = Math.min(j0 + TILE_SIZE, n);
+            for (int k0 = 0; k0 < n; k0 += K_BLOCK_SIZE) {
+                final int k1 = Math.min(k0 + K_BLOCK_SIZE, n);
+                int i = 0;
+                for (; i + 1 < n; i += 2) {
+                    final double[] a0 = A.rows[A.row + i];
+                    final double[] a1 = A.rows[A.row + i + 1];
+                    final double[] c0 = C.rows[C.row + i];
+                    final double[] c1 = C.rows[C.row + i + 1];
+                    int j = j0;
+                    for (; j + 1 < j1; j += 2) {
+                        final int b0 = j * n - A.col;
+                        final int b1 = b0 + n;
+                        double c00 = 0.0;
+                        double c01 = 0.0;
+                        double c10 = 0.0;
+                        double c11 = 0.0;
+                        for (int k = A.col + k0; k < A.col + k1; k++) {
+                            final double x0 = a0[k];
+                            final double x1 = a1[k];
+                            final double y0 = packedB[b0 + k];
+                            final double y1 = packedB[b1 + k];
+                            c00 += x0 * y0;
+                            c01 += x0 * y1;
+                            c10 += x1 * y0;
+                            c11 += x1 * y1;
+                        }
+                        c0[C.col + j] += c00;
+                        c0[C.col + j + 1] += c01;
+                        c1[C.col + j] += c10;
+                        c1[C.col + j + 1] += c11;
+                    }
+                    if (j < j1) {
+                        final int b0 = j * n - A.col;
+                        c0[C.col + j] += dot(a0, packedB, b0, A.col + k0,
+                                A.col + k1);
+                        c1[C.col + j] += dot(a1, packedB, b0, A.col + k0,
+                                A.col + k1);
+                    }
+                }
+                if (i < n) {
+                    final double[] a = A.rows[A.row + i];
+                    final double[] c = C.rows[C.row + i];
+                    for (int j = j0; j < j1; j++) {
+                        c[C.col + j] += dot(a, packedB, j * n - A.col,
+                                A.col + k0, A.col + k1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A view of the square region of a two-dimensional array starting at a
+     * given row and column, used by strassenMatrixMultiply to work on
+     * quadrants without copying them.
+     */
+    private static final class Block {
+        /**
+         * The rows of the underlying array.
+         */
+        private final double[][] rows;
+        /**
+         * First row of the region.
+         */
+        private final int row;
+        /**
+         * First column of the region.
+         */
+        private final int col;
+
+        /**
+         * Constructor.
+         *
+         * @param setRows The rows of the underlying array
+         * @param setRow  First row of the region
+         * @param setCol  First column of the region
+         */
+        Block(final double[][] setRows, final int setRow, final int setCol) {
+            this.rows = setRows;
+            this.row = setRow;
+            this.col = setCol;
+        }
+
+        /**
+         * Create a view of one quadrant of this region.
+         *
+         * @param qi Quadrant row, 0 or 1
+         * @param qj Quadrant column, 0 or 1
+         * @param h  Size of each dimension of the quadrant
+         * @return The view
+         */
+        Block quadrant(final int qi, final int qj, final int h) {
+            return new Block(rows, row + qi * h, col + qj * h);
+        }
+    }
 }
@@ -0,0 +1,203 @@
+package edu.coursera.parallel;
+
+import java.util.Arrays;
+
+import static edu.rice.pcdp.PCDP.forall;
+
+/**
+ * Represents an immutable two-dimensional matrix in compressed sparse row
+ * (CSR) form. Only the nonzero elements are stored: the column indices and
+ * values of the nonzeros of row i are at positions rowOffsets[i] to
+ * rowOffsets[i + 1] of colIndices and values, in increasing column order.
+ */
+public final class SparseMatrix {
+    /**
+     * The number of rows in the matrix.
+     */
+    private final int nrows;
+    /**
+     * The number of columns in the matrix.
+     */
+    private final int ncols;
+    /**
+     * Position of the first nonzero of each row, followed by the number of
+     * nonzeros.
+     */
+    private final int[] rowOffsets;
+    /**
+     * Column index of each nonzero.
+     */
+    private final int[] colIndices;
+    /**
+     * Value of each nonzero.
+     */
+    private final double[] values;
+
+    /**
+     * Constructor, wrapping CSR arrays without copying them.
+     *
+     * @param setNrows      Number of rows
+     * @param setNcols      Number of columns
+     * @param setRowOffsets Position of the first nonzero of each row, followed
+     *                      by the number of nonzeros
+     * @param setColIndices Column index of each nonzero
+     * @param setValues     Value of each nonzero
+     */
+    public SparseMatrix(final int setNrows, final int setNcols,
+            final int[] setRowOffsets, final int[] setColIndices,
+            final double[] setValues) {
+        if (setRowOffsets.length != setNrows + 1
+                || setColIndices.length != setValues.length
+                || setRowOffsets[setNrows] != setValues.length) {
+            throw new IllegalArgumentException("Inconsistent CSR arrays for a "
+                    + setNrows + "x" + setNcols + " matrix");
+        }
+        this.nrows = setNrows;
+        this.ncols = setNcols;
+        this.rowOffsets = setRowOffsets;
+        this.colIndices = setColIndices;
+        this.values = setValues;
+    }
+
+    /**
+     * Converts a dense matrix to CSR form, in parallel over rows.
+     *
+     * @param rows The rows of the matrix, all of the same length
+     * @return The nonzeros of the matrix
+     */
+    public static SparseMatrix fromDense(final double[][] rows) {
+        final int nrows = rows.length;
+        final int ncols = nrows == 0 ? 0 : rows[0].length;
+        final int[] rowOffsets = new int[nrows + 1];
+        if (nrows > 0) {
+            forall(0, nrows - 1, i -> {
+                int count = 0;
+                for (double v : rows[i]) {
+                    if (v != 0.0) {
+                        count++;
+                    }
+                }
+                rowOffsets[i + 1] = count;
+            });
+        }
+        for (int i = 0; i < nrows; i++) {
+            rowOffsets[i + 1] += rowOffsets[i];
+        }
+        final int[] colIndices = new int[rowOffsets[nrows]];
+        final double[] values = new double[rowOffsets[nrows]];
+        if (nrows > 0) {
+            forall(0, nrows - 1, i -> {
+                int nz = rowOffsets[i];
+                final double[] row = rows[i];
+                for (int j = 0; j < ncols; j++) {
+                    if (row[j] != 0.0) {
+                        colIndices[nz] = j;
+                        values[nz] = row[j];
+                        nz++;
+                    }
+                }
+            });
+        }
+        return new SparseMatrix(nrows, ncols, rowOffsets, colIndices, values);
+    }
+
+    /**
+     * Fetch the number of rows in this matrix.
+     *
+     * @return # of rows
+     */
+    public int getNRows() {
+        return nrows;
+    }
+
+    /**
+     * Fetch the number of columns in this matrix.
+     *
+     * @return # of columns
+     */
+    public int getNCols() {
+        return ncols;
+    }
+
+    /**
+     * Fetch the number of nonzero elements stored in this matrix.
+     *
+     * @return # of nonzeros
+     */
+    public int getNonZeroCount() {
+        return values.length;
+    }
+
+    /**
+     * Fetch the value currently stored at (row, col).
+     *
+     * @param row Row index
+     * @param col Column index
+     * @return The value stored at (row, col)
+     */
+    public double get(final int row, final int col) {
+        final int nz = Arrays.binarySearch(colIndices, rowOffsets[row],
+                rowOffsets[row + 1], col);
+        return nz >= 0 ? values[nz] : 0.0;
+    }
+
+    /**
+     * Get the raw array of the position of the first nonzero of each row,
+     * followed by the number of nonzeros.
+     *
+     * @return Raw row offsets array
+     */
+    public int[] getRowOffsets() {
+        return rowOffsets;
+    }
+
+    /**
+     * Get the raw array of the column index of each nonzero.
+     *
+     * @return Raw column indices array
+     */
+    public int[] getColIndices() {
+        return colIndices;
+    }
+
+    /**
+     * Get the raw array of the value of each nonzero.
+     *
+     * @return Raw values array
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Divides the rows into consecutive ranges holding about the same number
+     * of nonzeros each, rather than the same number of rows, so that ranges
+     * take about the same time to process even if a few rows hold most of
+     * the nonzeros. A row is never split, so a range may hold more than its
+     * share if one of its rows does.
+     *
+     * @param nParts Number of ranges
+     * @return nParts + 1 row indices, range p being rows bounds[p] to
+     *         bounds[p + 1]
+     */
+    int[] partitionRows(final int nParts) {
+        final int[] bounds = new int[nParts + 1];
+        final long nnz = values.length;
+        for (int p = 1; p < nParts; p++) {
+            final int target = (int) (p * nnz / nParts);
+            int lo = bounds[p - 1];
+            int hi = nrows;
+            while (lo < hi) {
+                final int mid = (lo + hi) >>> 1;
+                if (rowOffsets[mid] < target) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            bounds[p] = lo;
+        }
+        bounds[nParts] = nrows;
+        return bounds;
+    }
+}
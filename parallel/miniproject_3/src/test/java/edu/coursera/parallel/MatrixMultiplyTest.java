@@ -1,5 +1,6 @@
 package edu.coursera.parallel;
 
+import java.util.Arrays;
 import java.util.Random;
 
 import junit.framework.TestCase;
@@ -129,4 +130,179 @@ public class MatrixMultiplyTest extends TestCase {
                 "least %fx faster, but it only achieved %fx speedup", minimalExpectedSpeedup, speedup);
         assertTrue(errMsg, speedup >= minimalExpectedSpeedup);
     }
+
+    /**
+     * Tests the blocked implementation against the reference, including sizes that are not a multiple of the tile
+     * size or of the 2x2 kernel.
+     */
+    public void testBlockedMatrixMultiply() {
+        for (int N : new int[] {1, 2, 63, 130, 512}) {
+            final double[][] A = createMatrix(N);
+            final double[][] B = createMatrix(N);
+            final double[][] C = new double[N][N];
+            final double[][] refC = new double[N][N];
+
+            seqMatrixMultiply(A, B, refC, N);
+            MatrixMultiply.blockedMatrixMultiply(A, B, C, N);
+
+            checkResult(refC, C, N);
+        }
+    }
+
+    /**
+     * Tests the Strassen implementation against the reference on integer matrices, where it is exact, for sizes that
+     * need padding and sizes that do not.
+     */
+    public void testStrassenMatrixMultiply() {
+        for (int N : new int[] {1, 17, 100, 130, 256}) {
+            final double[][] A = createMatrix(N);
+            final double[][] B = createMatrix(N);
+            final double[][] C = new double[N][N];
+            final double[][] refC = new double[N][N];
+
+            seqMatrixMultiply(A, B, refC, N);
+            MatrixMultiply.strassenMatrixMultiply(A, B, C, N, 16);
+
+            checkResult(refC, C, N);
+        }
+    }
+
+    /**
+     * Reports the numeric error of the Strassen implementation on random real matrices for several cutoffs.
+     */
+    public void testStrassenNumericError() {
+        final int N = 512;
+        final Random rand = new Random(42);
+        final double[][] A = new double[N][N];
+        final double[][] B = new double[N][N];
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                A[i][j] = rand.nextDouble() * 2 - 1;
+                B[i][j] = rand.nextDouble() * 2 - 1;
+            }
+        }
+        final double[][] refC = new double[N][N];
+        MatrixMultiply.seqMatrixMultiply(A, B, refC, N);
+
+        for (int cutoff : new int[] {32, 64, MatrixMultiply.DEFAULT_STRASSEN_CUTOFF}) {
+            final double[][] C = new double[N][N];
+            MatrixMultiply.strassenMatrixMultiply(A, B, C, N, cutoff);
+            final double error = MatrixMultiply.relativeError(refC, C, N);
+            System.out.printf("Strassen N=%d cutoff=%d relative error=%e%n", N, cutoff, error);
+            assertTrue("Relative error too large: " + error, error < 1E-12);
+        }
+    }
+
+    /**
+     * Tests the rectangular multiply over flat matrices, on whole matrices and on views inside larger matrices.
+     */
+    public void testDenseMatrixMultiply() {
+        final int M = 70;
+        final int K = 130;
+        final int N = 45;
+        final double[][] a = createMatrix(K);
+        final double[][] b = createMatrix(K);
+        final double[][] ref = new double[M][N];
+        for (int i = 0; i < M; i++) {
+            for (int j = 0; j < N; j++) {
+                for (int k = 0; k < K; k++) {
+                    ref[i][j] += a[i][k] * b[k][j];
+                }
+            }
+        }
+
+        final DenseMatrix A = new DenseMatrix(a).submatrix(0, 0, M, K);
+        final DenseMatrix B = new DenseMatrix(b).submatrix(0, 0, K, N);
+        final DenseMatrix seqC = new DenseMatrix(M, N);
+        MatrixMultiply.seqMatrixMultiply(A, B, seqC);
+        assertTrue(Arrays.deepEquals(ref, seqC.toArray()));
+
+        // Write the product into the middle of a larger matrix and check its border is untouched
+        final DenseMatrix outer = new DenseMatrix(M + 2, N + 2);
+        outer.set(0, 0, -1.0);
+        outer.set(M + 1, N + 1, -1.0);
+        final DenseMatrix parC = outer.submatrix(1, 1, M, N);
+        MatrixMultiply.parMatrixMultiply(A, B, parC);
+        assertTrue(Arrays.deepEquals(ref, parC.toArray()));
+        assertEquals(-1.0, outer.get(0, 0));
+        assertEquals(0.0, outer.get(0, 1));
+        assertEquals(0.0, outer.get(M + 1, N));
+        assertEquals(-1.0, outer.get(M + 1, N + 1));
+
+        try {
+            MatrixMultiply.parMatrixMultiply(A, A, parC);
+            fail("Expected mismatched dimensions to be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Create an NxN matrix that is about 97% zeros, with a few much denser rows to skew the work per row.
+     */
+    private double[][] createSparseMatrix(final int N) {
+        final double[][] input = new double[N][N];
+        final Random rand = new Random(2718);
+        for (int i = 0; i < N; i++) {
+            final double density = i % 50 == 0 ? 0.5 : 0.02;
+            for (int j = 0; j < N; j++) {
+                if (rand.nextDouble() < density) {
+                    input[i][j] = 1 + rand.nextInt(99);
+                }
+            }
+        }
+        return input;
+    }
+
+    /**
+     * Tests the CSR conversion, row partitioning by nonzeros and the sparse multiplies against dense references.
+     */
+    public void testSparseMatrixMultiply() {
+        final int N = 300;
+        final double[][] a = createSparseMatrix(N);
+        final double[][] b = createMatrix(N);
+        final double[][] refC = new double[N][N];
+        seqMatrixMultiply(a, b, refC, N);
+
+        final SparseMatrix A = SparseMatrix.fromDense(a);
+        int nnz = 0;
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                assertEquals(a[i][j], A.get(i, j));
+                nnz += a[i][j] != 0.0 ? 1 : 0;
+            }
+        }
+        assertEquals(nnz, A.getNonZeroCount());
+
+        final int[] bounds = A.partitionRows(8);
+        assertEquals(0, bounds[0]);
+        assertEquals(N, bounds[8]);
+        for (int p = 0; p < 8; p++) {
+            assertTrue(bounds[p] <= bounds[p + 1]);
+            final int partNnz = A.getRowOffsets()[bounds[p + 1]] - A.getRowOffsets()[bounds[p]];
+            assertTrue("Unbalanced part " + p + " with " + partNnz + " nonzeros", partNnz < 2 * nnz / 8);
+        }
+
+        final double[] x = new double[N];
+        final double[] y = new double[N];
+        for (int j = 0; j < N; j++) {
+            x[j] = j % 7;
+        }
+        MatrixMultiply.parMatrixVectorMultiply(A, x, y);
+        for (int i = 0; i < N; i++) {
+            double expected = 0.0;
+            for (int j = 0; j < N; j++) {
+                expected += a[i][j] * x[j];
+            }
+            assertEquals(expected, y[i]);
+        }
+
+        final DenseMatrix denseC = new DenseMatrix(N, N);
+        MatrixMultiply.parMatrixMultiply(A, new DenseMatrix(b), denseC);
+        assertTrue(Arrays.deepEquals(refC, denseC.toArray()));
+
+        final double[][] C = new double[N][N];
+        MatrixMultiply.sparseMatrixMultiply(a, b, C, N);
+        checkResult(refC, C, N);
+    }
 }
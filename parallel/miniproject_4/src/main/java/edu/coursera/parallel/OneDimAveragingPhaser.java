@@ -7,6 +7,14 @@ import java.util.concurrent.Phaser;
  * phasers.
  */
 public final class OneDimAveragingPhaser {
+    /**
+     * Number of cells in each tile that runParallelTemporalBlocking advances
+     * through a whole superstep before moving to the next tile. The two
+     * levels of a tile being computed, 2 * 8 * TEMPORAL_TILE_SIZE bytes, stay
+     * in the L2 cache.
+     */
+    static final int TEMPORAL_TILE_SIZE = 4096;
+
     /**
      * Default constructor.
      */
@@ -157,4 +165,160 @@ public final class OneDimAveragingPhaser {
             }
         }
     }
+
+    /**
+     * A parallel implementation of one-dimensional iterative averaging with
+     * temporal blocking, advancing each chunk blockingFactor iterations per
+     * synchronization instead of one.
+     * <p>
+     * Each task keeps its chunk in two private buffers together with a halo of
+     * blockingFactor cells on each side. At the start of every superstep it
+     * publishes the blockingFactor cells at each edge of its chunk, arrives at
+     * its phaser, and waits only for its neighbors' phasers before copying
+     * their edges into its halo. It then computes blockingFactor iterations
+     * locally, each one valid on one cell less on each side, so that the
+     * chunk itself is up to date at the end. The chunk is swept in
+     * TEMPORAL_TILE_SIZE tiles that are each advanced through all the
+     * iterations of the superstep while in cache, skewed one cell to the
+     * left per iteration so that the two buffers suffice. Phaser
+     * synchronizations and passes over memory both drop by blockingFactor, at
+     * the cost of recomputing the halo cells.
+     * <p>
+     * Both arrays hold exactly the same values at the end as after
+     * runSequential.
+     *
+     * @param iterations     The number of iterations to run
+     * @param myNew          A double array that starts as the output array
+     * @param myVal          A double array that contains the initial input to
+     *                       the iterative averaging problem
+     * @param n              The size of this problem
+     * @param tasks          The number of threads/tasks to use to compute the
+     *                       solution
+     * @param blockingFactor The number of iterations per superstep, reduced to
+     *                       the smallest chunk size if larger
+     */
+    public static void runParallelTemporalBlocking(final int iterations,
+            final double[] myNew, final double[] myVal, final int n,
+            final int tasks, final int blockingFactor) {
+        if (tasks < 1 || blockingFactor < 1) {
+            throw new IllegalArgumentException("Expected positive tasks and "
+                    + "blocking factor, got " + tasks + " and " + blockingFactor);
+        }
+        if (iterations <= 0 || n <= 0) {
+            return;
+        }
+        final int nTasks = Math.min(tasks, n);
+        final int maxBlock = Math.min(blockingFactor, n / nTasks);
+
+        final Phaser[] phs = new Phaser[nTasks];
+        // halos[i][parity] holds the maxBlock leftmost then maxBlock rightmost
+        // cells of chunk i, published in supersteps of that parity
+        final double[][][] halos = new double[nTasks][2][2 * maxBlock];
+        for (int i = 0; i < nTasks; i++) {
+            phs[i] = new Phaser(1);
+        }
+
+        final Thread[] threads = new Thread[nTasks];
+        for (int ii = 0; ii < nTasks; ii++) {
+            final int i = ii;
+            final int left = (int) ((long) i * n / nTasks) + 1;
+            final int right = (int) ((long) (i + 1) * n / nTasks);
+
+            threads[i] = new Thread(() -> {
+                // Cell g of the problem is at index g - base of the buffers,
+                // level t of the iteration is in buffer t % 2. The buffers
+                // span the chunk, its halos and one more cell on each side,
+                // for the problem boundaries when a halo reaches them.
+                final int base = left - maxBlock - 1;
+                final double[][] buf = new double[2][right + maxBlock + 1 - base + 1];
+                System.arraycopy(myVal, left, buf[0], left - base, right - left + 1);
+                if (base <= 0) {
+                    buf[0][-base] = myVal[0];
+                    buf[1][-base] = myNew[0];
+                }
+                if (right + maxBlock + 1 >= n + 1) {
+                    buf[0][n + 1 - base] = myVal[n + 1];
+                    buf[1][n + 1 - base] = myNew[n + 1];
+                }
+
+                int superstep = 0;
+                for (int level = 0; level < iterations; level += maxBlock, superstep++) {
+                    final int b = Math.min(maxBlock, iterations - level);
+                    final double[] curr = buf[level % 2];
+                    final double[] published = halos[i][superstep % 2];
+                    System.arraycopy(curr, left - base, published, 0, b);
+                    System.arraycopy(curr, right - b + 1 - base, published, maxBlock, b);
+
+                    final int currentPhase = phs[i].arrive();
+                    if (i - 1 >= 0) {
+                        phs[i - 1].awaitAdvance(currentPhase);
+                        System.arraycopy(halos[i - 1][superstep % 2], maxBlock,
+                                curr, left - b - base, b);
+                    }
+                    if (i + 1 < nTasks) {
+                        phs[i + 1].awaitAdvance(currentPhase);
+                        System.arraycopy(halos[i + 1][superstep % 2], 0,
+                                curr, right + 1 - base, b);
+                    }
+
+                    advance(buf, level, b, base, Math.max(left - b, 1),
+                            Math.min(right + b, n), n);
+                }
+
+                final double[] last = iterations % 2 == 0 ? myVal : myNew;
+                System.arraycopy(buf[iterations % 2], left - base, last, left,
+                        right - left + 1);
+                if (iterations > 1) {
+                    final double[] previous = iterations % 2 == 0 ? myNew : myVal;
+                    System.arraycopy(buf[(iterations - 1) % 2], left - base,
+                            previous, left, right - left + 1);
+                }
+            });
+            threads[i].start();
+        }
+
+        for (int i = 0; i < nTasks; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Advances the cells lo to hi of a chunk's buffers by b iterations. The
+     * range shrinks by one cell on each side per iteration, except on a side
+     * that reaches the problem boundary. Tiles of TEMPORAL_TILE_SIZE cells
+     * are advanced by all b iterations one after the other, from left to
+     * right, each iteration of a tile shifted one cell to the left of the
+     * previous one: that way every cell of the older level that a later
+     * iteration overwrites has already been read by all the cells that
+     * depend on it.
+     *
+     * @param buf   The two buffers of the chunk, level t in buf[t % 2]
+     * @param level The level the buffers are at, valid on cells lo to hi
+     * @param b     The number of iterations to advance
+     * @param base  The cell at index 0 of the buffers
+     * @param lo    The first valid cell
+     * @param hi    The last valid cell
+     * @param n     The size of this problem
+     */
+    private static void advance(final double[][] buf, final int level,
+            final int b, final int base, final int lo, final int hi,
+            final int n) {
+        for (int tile = lo - base; tile - b <= hi - base; tile += TEMPORAL_TILE_SIZE) {
+            for (int m = 1; m <= b; m++) {
+                final double[] next = buf[(level + m) % 2];
+                final double[] curr = buf[(level + m - 1) % 2];
+                final int first = (lo == 1 ? 1 : lo + m) - base;
+                final int last = (hi == n ? n : hi - m) - base;
+                final int from = Math.max(tile - m, first);
+                final int to = Math.min(tile + TEMPORAL_TILE_SIZE - m, last + 1);
+                for (int j = from; j < to; j++) {
+                    next[j] = (curr[j - 1] + curr[j + 1]) / 2.0;
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,228 @@
+package edu.coursera.parallel;
+
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A reusable solver for one-dimensional iterative averaging, running the
+ * fuzzy barrier scheme of OneDimAveragingPhaser.runParallelFuzzyBarrier on a
+ * group of worker threads that is started once and kept alive across calls
+ * to run. Each call only hands the new arrays to the idle workers and waits
+ * for them to finish, so the cost of creating and joining threads is paid
+ * once per solver instead of once per call.
+ * <p>
+ * Calls to run are serialized. The solver must be closed to stop its
+ * workers. If a worker fails during a run, the run throws the worker's
+ * exception and the solver is closed.
+ */
+public final class OneDimAveragingSolver implements AutoCloseable {
+    /**
+     * The worker threads.
+     */
+    private final Thread[] workers;
+    /**
+     * One phaser per worker, advanced once per iteration. Every worker
+     * arrives at its phaser once per iteration of every run, so all of them
+     * stay at the same phase from one run to the next.
+     */
+    private final Phaser[] phs;
+    /**
+     * Barrier between the caller and the workers, advanced once when a run
+     * is handed to the workers and once when they have finished it.
+     */
+    private final Phaser gate;
+
+    /**
+     * Number of iterations of the current run.
+     */
+    private int iterations;
+    /**
+     * Output array of the current run.
+     */
+    private double[] myNew;
+    /**
+     * Input array of the current run.
+     */
+    private double[] myVal;
+    /**
+     * Size of the current run.
+     */
+    private int n;
+    /**
+     * Set when the solver is closed, telling the workers to exit.
+     */
+    private boolean closed;
+    /**
+     * The first exception thrown by a worker during the current run, if any.
+     */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Constructor, starting the workers.
+     *
+     * @param tasks The number of threads/tasks to use to compute solutions
+     */
+    public OneDimAveragingSolver(final int tasks) {
+        if (tasks < 1) {
+            throw new IllegalArgumentException("Expected a positive number "
+                    + "of tasks, got " + tasks);
+        }
+        this.workers = new Thread[tasks];
+        this.phs = new Phaser[tasks];
+        this.gate = new Phaser(tasks + 1);
+        for (int i = 0; i < tasks; i++) {
+            phs[i] = new Phaser(1);
+        }
+        for (int ii = 0; ii < tasks; ii++) {
+            final int i = ii;
+            workers[i] = new Thread(() -> work(i),
+                    "OneDimAveragingSolver-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Get the number of worker threads.
+     * @return The number of threads/tasks.
+     */
+    public int getTasks() {
+        return workers.length;
+    }
+
+    /**
+     * Runs one-dimensional iterative averaging on the workers, with the same
+     * results as OneDimAveragingPhaser.runSequential.
+     *
+     * @param setIterations The number of iterations to run
+     * @param setMyNew      A double array that starts as the output array
+     * @param setMyVal      A double array that contains the initial input to
+     *                      the iterative averaging problem
+     * @param setN          The size of this problem
+     */
+    public synchronized void run(final int setIterations,
+            final double[] setMyNew, final double[] setMyVal,
+            final int setN) {
+        if (closed) {
+            throw new IllegalStateException("Solver is closed");
+        }
+        if (setN < 0 || setMyNew.length < setN + 2
+                || setMyVal.length < setN + 2) {
+            throw new IllegalArgumentException("Arrays of length "
+                    + setMyNew.length + " and " + setMyVal.length
+                    + " are too short for a problem of size " + setN);
+        }
+        this.iterations = setIterations;
+        this.myNew = setMyNew;
+        this.myVal = setMyVal;
+        this.n = setN;
+        // The phaser advances publish the fields above to the workers, and
+        // the workers' results back to the caller
+        gate.arriveAndAwaitAdvance();
+        gate.arriveAndAwaitAdvance();
+        this.myNew = null;
+        this.myVal = null;
+
+        final Throwable t = failure.get();
+        if (t != null) {
+            // The phasers of the workers were terminated, so they cannot run
+            // again
+            close();
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            throw (RuntimeException) t;
+        }
+    }
+
+    /**
+     * Stops the workers and waits for them to exit. Closing a closed solver
+     * has no effect.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        gate.arriveAndAwaitAdvance();
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * The loop of one worker, waiting for a run, computing its chunk of it
+     * and signaling completion, until the solver is closed. A worker that
+     * fails records its exception and terminates the phasers of all workers,
+     * so that its neighbors stop waiting for it, and still signals
+     * completion, so that run returns.
+     *
+     * @param i Index of the worker
+     */
+    private void work(final int i) {
+        while (true) {
+            gate.arriveAndAwaitAdvance();
+            if (closed) {
+                return;
+            }
+            try {
+                compute(i);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                for (Phaser ph : phs) {
+                    ph.forceTermination();
+                }
+            } finally {
+                gate.arriveAndAwaitAdvance();
+            }
+        }
+    }
+
+    /**
+     * Computes chunk i of the current run with the fuzzy barrier scheme:
+     * the two edge cells of the chunk first, then arrive, then the interior,
+     * then wait for the neighbors. When there are fewer cells than workers,
+     * the workers without a chunk only arrive, to keep their phaser in step.
+     *
+     * @param i Index of the worker
+     */
+    private void compute(final int i) {
+        final int tasks = Math.min(workers.length, n);
+        if (i >= tasks) {
+            for (int iter = 0; iter < iterations; iter++) {
+                phs[i].arrive();
+            }
+            return;
+        }
+        final int left = (int) ((long) i * n / tasks) + 1;
+        final int right = (int) ((long) (i + 1) * n / tasks);
+
+        double[] threadPrivateMyVal = myVal;
+        double[] threadPrivateMyNew = myNew;
+
+        for (int iter = 0; iter < iterations; iter++) {
+            threadPrivateMyNew[left] = (threadPrivateMyVal[left - 1] + threadPrivateMyVal[left + 1]) / 2.0;
+            threadPrivateMyNew[right] = (threadPrivateMyVal[right - 1] + threadPrivateMyVal[right + 1]) / 2.0;
+
+            final int currentPhase = phs[i].arrive();
+            for (int j = left + 1; j <= right - 1; j++) {
+                threadPrivateMyNew[j] = (threadPrivateMyVal[j - 1] + threadPrivateMyVal[j + 1]) / 2.0;
+            }
+            if (i - 1 >= 0) {
+                phs[i - 1].awaitAdvance(currentPhase);
+            }
+            if (i + 1 < tasks) {
+                phs[i + 1].awaitAdvance(currentPhase);
+            }
+
+            double[] temp = threadPrivateMyNew;
+            threadPrivateMyNew = threadPrivateMyVal;
+            threadPrivateMyVal = temp;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package edu.coursera.parallel;
+
+/**
+ * A linear stencil over a one-, two- or three-dimensional grid: the new value
+ * of every cell is the sum of the current values of the cells at a fixed set
+ * of offsets from it, each multiplied by its own coefficient. The radius of
+ * the stencil, its largest offset along any dimension, is the width of the
+ * ghost layer that StencilEngine keeps around the grid.
+ */
+public final class Stencil {
+    /**
+     * Number of dimensions of the grid.
+     */
+    private final int dimensions;
+    /**
+     * Offset of each point of the stencil, one component per dimension.
+     */
+    private final int[][] offsets;
+    /**
+     * Coefficient of each point of the stencil.
+     */
+    private final double[] coefficients;
+    /**
+     * Largest absolute offset along any dimension.
+     */
+    private final int radius;
+
+    /**
+     * Constructor.
+     *
+     * @param setOffsets      Offset of each point of the stencil, each with
+     *                        one component per dimension of the grid
+     * @param setCoefficients Coefficient of each point of the stencil
+     */
+    public Stencil(final int[][] setOffsets, final double[] setCoefficients) {
+        if (setOffsets.length == 0
+                || setOffsets.length != setCoefficients.length) {
+            throw new IllegalArgumentException("Expected one coefficient per "
+                    + "offset, got " + setOffsets.length + " offsets and "
+                    + setCoefficients.length + " coefficients");
+        }
+        this.dimensions = setOffsets[0].length;
+        if (dimensions < 1 || dimensions > 3) {
+            throw new IllegalArgumentException("Only 1 to 3 dimensions are "
+                    + "supported, got " + dimensions);
+        }
+        this.offsets = new int[setOffsets.length][];
+        int r = 0;
+        for (int k = 0; k < setOffsets.length; k++) {
+            if (setOffsets[k].length != dimensions) {
+                throw new IllegalArgumentException("Offset " + k + " has "
+                        + setOffsets[k].length + " components, expected "
+                        + dimensions);
+            }
+            offsets[k] = setOffsets[k].clone();
+            for (int o : offsets[k]) {
+                r = Math.max(r, Math.abs(o));
+            }
+        }
+        this.coefficients = setCoefficients.clone();
+        this.radius = Math.max(r, 1);
+    }
+
+    /**
+     * Creates the Jacobi relaxation stencil, averaging the two neighbors of
+     * each cell along every dimension: the 2-point average of
+     * OneDimAveragingPhaser in one dimension, the 5-point stencil in two and
+     * the 7-point stencil in three, with a zero coefficient at the center.
+     *
+     * @param dimensions Number of dimensions of the grid
+     * @return The stencil
+     */
+    public static Stencil jacobi(final int dimensions) {
+        final int[][] offsets = new int[2 * dimensions][dimensions];
+        final double[] coefficients = new double[2 * dimensions];
+        for (int d = 0; d < dimensions; d++) {
+            offsets[2 * d][d] = -1;
+            offsets[2 * d + 1][d] = 1;
+            coefficients[2 * d] = 1.0 / (2 * dimensions);
+            coefficients[2 * d + 1] = 1.0 / (2 * dimensions);
+        }
+        return new Stencil(offsets, coefficients);
+    }
+
+    /**
+     * Get the number of dimensions of the grid.
+     * @return The number of dimensions.
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Get the largest absolute offset along any dimension, at least 1.
+     * @return The radius.
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Get the number of points of the stencil.
+     * @return The number of points.
+     */
+    public int getPointCount() {
+        return coefficients.length;
+    }
+
+    /**
+     * Get one component of the offset of a point.
+     * @param k Index of the point
+     * @param d Dimension
+     * @return The offset of point k along dimension d.
+     */
+    int getOffset(final int k, final int d) {
+        return offsets[k][d];
+    }
+
+    /**
+     * Get the coefficient of a point.
+     * @param k Index of the point
+     * @return The coefficient of point k.
+     */
+    double getCoefficient(final int k) {
+        return coefficients[k];
+    }
+}
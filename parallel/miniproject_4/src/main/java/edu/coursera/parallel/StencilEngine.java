@@ -0,0 +1,295 @@
+package edu.coursera.parallel;
+
+import java.util.concurrent.Phaser;
+
+/**
+ * Wrapper class for iterating a Stencil over a one-, two- or
+ * three-dimensional grid, sequentially or in parallel with the fuzzy barrier
+ * scheme of OneDimAveragingPhaser.
+ * <p>
+ * A grid of interior size dims is stored in a flat row-major double array,
+ * surrounded along every dimension by a ghost layer as wide as the stencil's
+ * radius, so that dimension d spans dims[d] + 2 * radius cells. The ghost
+ * cells hold the boundary values and are never written. As in
+ * OneDimAveragingPhaser, iterations alternate between the two arrays, and
+ * each array's ghost cells are read by the iterations that read that array.
+ */
+public final class StencilEngine {
+    /**
+     * Default constructor.
+     */
+    private StencilEngine() {
+    }
+
+    /**
+     * Get the length of the arrays holding a grid, including its ghost
+     * layer.
+     *
+     * @param stencil The stencil to iterate over the grid
+     * @param dims    The interior size of each dimension of the grid
+     * @return The array length.
+     */
+    public static int getGridLength(final Stencil stencil, final int... dims) {
+        return new Grid(stencil, dims).length;
+    }
+
+    /**
+     * Get the index of a cell of a grid in the arrays holding it.
+     *
+     * @param stencil The stencil to iterate over the grid
+     * @param dims    The interior size of each dimension of the grid
+     * @param coords  The coordinates of the cell, from 0 to dims[d] + 2 *
+     *                radius - 1 along dimension d, interior cells starting
+     *                at radius
+     * @return The index of the cell.
+     */
+    public static int getIndex(final Stencil stencil, final int[] dims,
+            final int... coords) {
+        return new Grid(stencil, dims).index(coords);
+    }
+
+    /**
+     * Sequential implementation of iterating a stencil over a grid.
+     *
+     * @param stencil    The stencil
+     * @param iterations The number of iterations to run
+     * @param myNew      An array that starts as the output grid
+     * @param myVal      An array that contains the initial grid
+     * @param dims       The interior size of each dimension of the grid
+     */
+    public static void runSequential(final Stencil stencil,
+            final int iterations, final double[] myNew, final double[] myVal,
+            final int... dims) {
+        final Grid grid = new Grid(stencil, dims);
+        grid.checkLength(myNew, myVal);
+        double[] next = myNew;
+        double[] curr = myVal;
+
+        for (int iter = 0; iter < iterations; iter++) {
+            grid.computePlanes(grid.ghost[0], grid.ghost[0] + grid.size[0] - 1,
+                    curr, next);
+            double[] tmp = curr;
+            curr = next;
+            next = tmp;
+        }
+    }
+
+    /**
+     * A parallel implementation of iterating a stencil over a grid that uses
+     * the Phaser.arrive and Phaser.awaitAdvance APIs to overlap computation
+     * with synchronization between neighboring tasks.
+     * <p>
+     * The grid is divided along its first (outermost) dimension into one
+     * slab of consecutive planes per task, each at least radius planes thick.
+     * In every iteration, each task computes the radius planes at both faces
+     * of its slab, the only ones its neighbors read, then arrives at its
+     * phaser, computes the interior planes of its slab and only then waits
+     * for the phasers of the tasks on either side. The results are identical
+     * to those of runSequential.
+     *
+     * @param stencil    The stencil
+     * @param iterations The number of iterations to run
+     * @param myNew      An array that starts as the output grid
+     * @param myVal      An array that contains the initial grid
+     * @param tasks      The number of threads/tasks to use to compute the
+     *                   solution, reduced so every slab has radius planes
+     * @param dims       The interior size of each dimension of the grid
+     */
+    public static void runParallelFuzzyBarrier(final Stencil stencil,
+            final int iterations, final double[] myNew, final double[] myVal,
+            final int tasks, final int... dims) {
+        if (tasks < 1) {
+            throw new IllegalArgumentException("Expected a positive number "
+                    + "of tasks, got " + tasks);
+        }
+        final Grid grid = new Grid(stencil, dims);
+        grid.checkLength(myNew, myVal);
+        final int r = stencil.getRadius();
+        final int nPlanes = grid.size[0];
+        if (nPlanes == 0) {
+            return;
+        }
+        final int nTasks = Math.max(1, Math.min(tasks, nPlanes / r));
+
+        Phaser[] phs = new Phaser[nTasks];
+        for (int i = 0; i < phs.length; i++) {
+            phs[i] = new Phaser(1);
+        }
+
+        Thread[] threads = new Thread[nTasks];
+
+        for (int ii = 0; ii < nTasks; ii++) {
+            final int i = ii;
+            final int first = grid.ghost[0] + (int) ((long) i * nPlanes / nTasks);
+            final int last = grid.ghost[0] + (int) ((long) (i + 1) * nPlanes / nTasks) - 1;
+
+            threads[i] = new Thread(() -> {
+                double[] threadPrivateMyVal = myVal;
+                double[] threadPrivateMyNew = myNew;
+
+                for (int iter = 0; iter < iterations; iter++) {
+                    if (last - first + 1 <= 2 * r) {
+                        grid.computePlanes(first, last, threadPrivateMyVal, threadPrivateMyNew);
+                    } else {
+                        grid.computePlanes(first, first + r - 1, threadPrivateMyVal, threadPrivateMyNew);
+                        grid.computePlanes(last - r + 1, last, threadPrivateMyVal, threadPrivateMyNew);
+                    }
+
+                    final int currentPhase = phs[i].arrive();
+                    if (last - first + 1 > 2 * r) {
+                        grid.computePlanes(first + r, last - r, threadPrivateMyVal, threadPrivateMyNew);
+                    }
+                    if (i - 1 >= 0) {
+                        phs[i - 1].awaitAdvance(currentPhase);
+                    }
+                    if (i + 1 < nTasks) {
+                        phs[i + 1].awaitAdvance(currentPhase);
+                    }
+
+                    double[] temp = threadPrivateMyNew;
+                    threadPrivateMyNew = threadPrivateMyVal;
+                    threadPrivateMyVal = temp;
+                }
+            });
+            threads[i].start();
+        }
+
+        for (int i = 0; i < nTasks; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * The layout of a grid in a flat array, as a three-dimensional grid in
+     * which the dimensions the stencil does not use have size 1 and no ghost
+     * layer.
+     */
+    private static final class Grid {
+        /**
+         * The stencil.
+         */
+        private final Stencil stencil;
+        /**
+         * Interior size of each of the three dimensions.
+         */
+        private final int[] size = new int[3];
+        /**
+         * Ghost layer width of each of the three dimensions.
+         */
+        private final int[] ghost = new int[3];
+        /**
+         * Distance in the array between consecutive cells along each of the
+         * three dimensions.
+         */
+        private final int[] strides = new int[3];
+        /**
+         * Distance in the array from a cell to each point of the stencil.
+         */
+        private final int[] pointOffsets;
+        /**
+         * Length of the array.
+         */
+        private final int length;
+
+        /**
+         * Constructor.
+         *
+         * @param setStencil The stencil to iterate over the grid
+         * @param dims       The interior size of each dimension of the grid
+         */
+        Grid(final Stencil setStencil, final int[] dims) {
+            this.stencil = setStencil;
+            if (dims.length != stencil.getDimensions()) {
+                throw new IllegalArgumentException("Expected "
+                        + stencil.getDimensions() + " dimensions, got "
+                        + dims.length);
+            }
+            for (int d = 0; d < 3; d++) {
+                if (d < dims.length) {
+                    if (dims[d] < 0) {
+                        throw new IllegalArgumentException("Negative size "
+                                + dims[d] + " of dimension " + d);
+                    }
+                    size[d] = dims[d];
+                    ghost[d] = stencil.getRadius();
+                } else {
+                    size[d] = 1;
+                }
+            }
+            strides[2] = 1;
+            strides[1] = size[2] + 2 * ghost[2];
+            strides[0] = strides[1] * (size[1] + 2 * ghost[1]);
+            this.length = strides[0] * (size[0] + 2 * ghost[0]);
+
+            this.pointOffsets = new int[stencil.getPointCount()];
+            for (int k = 0; k < pointOffsets.length; k++) {
+                for (int d = 0; d < stencil.getDimensions(); d++) {
+                    pointOffsets[k] += stencil.getOffset(k, d) * strides[d];
+                }
+            }
+        }
+
+        /**
+         * Check that the arrays are long enough to hold the grid.
+         *
+         * @param myNew The output array
+         * @param myVal The input array
+         */
+        void checkLength(final double[] myNew, final double[] myVal) {
+            if (myNew.length < length || myVal.length < length) {
+                throw new IllegalArgumentException("Arrays of length "
+                        + myNew.length + " and " + myVal.length
+                        + " are too short for a grid of length " + length);
+            }
+        }
+
+        /**
+         * Get the index of a cell.
+         *
+         * @param coords The coordinates of the cell, ghost layer included
+         * @return The index of the cell.
+         */
+        int index(final int[] coords) {
+            if (coords.length != stencil.getDimensions()) {
+                throw new IllegalArgumentException("Expected "
+                        + stencil.getDimensions() + " coordinates, got "
+                        + coords.length);
+            }
+            int index = 0;
+            for (int d = 0; d < coords.length; d++) {
+                index += coords[d] * strides[d];
+            }
+            return index;
+        }
+
+        /**
+         * Applies the stencil to every interior cell of a range of planes of
+         * the first dimension.
+         *
+         * @param from First plane, ghost layer included
+         * @param to   Last plane, ghost layer included
+         * @param curr The array to read
+         * @param next The array to write
+         */
+        void computePlanes(final int from, final int to, final double[] curr,
+                final double[] next) {
+            final int nPoints = pointOffsets.length;
+            for (int p = from; p <= to; p++) {
+                for (int q = ghost[1]; q < ghost[1] + size[1]; q++) {
+                    final int row = p * strides[0] + q * strides[1];
+                    for (int c = row + ghost[2]; c < row + ghost[2] + size[2]; c++) {
+                        double sum = 0.0;
+                        for (int k = 0; k < nPoints; k++) {
+                            sum += stencil.getCoefficient(k) * curr[c + pointOffsets[k]];
+                        }
+                        next[c] = sum;
+                    }
+                }
+            }
+        }
+    }
+}
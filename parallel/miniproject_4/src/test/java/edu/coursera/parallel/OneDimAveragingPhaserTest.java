@@ -1,5 +1,6 @@
 package edu.coursera.parallel;
 
+import java.util.Random;
 import java.util.concurrent.Phaser;
 
 import junit.framework.TestCase;
@@ -132,4 +133,78 @@ public class OneDimAveragingPhaserTest extends TestCase {
                 "run %fx faster than the barrier implementation, but it only achieved %fx speedup", expected, speedup);
         assertTrue(errMsg, speedup >= expected);
     }
+
+    /**
+     * Test that temporal blocking leaves both arrays exactly as the sequential version does, for blocking factors
+     * that do not divide the iterations, chunks that do not divide the problem and factors larger than a chunk.
+     */
+    public void testTemporalBlocking() {
+        final Random rand = new Random(17);
+        final int[][] configs = {
+            // n, iterations, tasks, blocking factor
+            {1000, 100, 4, 8},
+            {1003, 101, 5, 7},
+            {1000, 1, 3, 4},
+            {10, 57, 4, 16},
+            {5000, 64, 1, 64},
+            {20000, 33, 8, 32},
+            {7, 9, 10, 3},
+        };
+        for (int[] config : configs) {
+            final int n = config[0];
+            final int iterations = config[1];
+            final double[] myNew = new double[n + 2];
+            final double[] myVal = new double[n + 2];
+            for (int j = 0; j < n + 2; j++) {
+                myNew[j] = rand.nextDouble();
+                myVal[j] = rand.nextDouble();
+            }
+            final double[] myNewRef = myNew.clone();
+            final double[] myValRef = myVal.clone();
+
+            runSequential(iterations, myNewRef, myValRef, n);
+            OneDimAveragingPhaser.runParallelTemporalBlocking(iterations, myNew, myVal, n, config[2], config[3]);
+
+            checkResult(myNewRef, myNew);
+            checkResult(myValRef, myVal);
+        }
+    }
+
+    /**
+     * Test that a persistent solver gives the sequential results over many runs of different sizes, including runs
+     * with fewer cells than workers, and rejects runs once closed.
+     */
+    public void testReusableSolver() {
+        final Random rand = new Random(23);
+        final OneDimAveragingSolver solver = new OneDimAveragingSolver(4);
+        try {
+            for (int run = 0; run < 50; run++) {
+                final int n = run % 10 == 0 ? 1 + rand.nextInt(4) : 1 + rand.nextInt(5000);
+                final int iterations = rand.nextInt(40);
+                final double[] myNew = new double[n + 2];
+                final double[] myVal = new double[n + 2];
+                for (int j = 0; j < n + 2; j++) {
+                    myNew[j] = rand.nextDouble();
+                    myVal[j] = rand.nextDouble();
+                }
+                final double[] myNewRef = myNew.clone();
+                final double[] myValRef = myVal.clone();
+
+                runSequential(iterations, myNewRef, myValRef, n);
+                solver.run(iterations, myNew, myVal, n);
+
+                checkResult(myNewRef, myNew);
+                checkResult(myValRef, myVal);
+            }
+        } finally {
+            solver.close();
+        }
+
+        try {
+            solver.run(1, new double[3], new double[3], 1);
+            fail("Expected a closed solver to reject runs");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
 }
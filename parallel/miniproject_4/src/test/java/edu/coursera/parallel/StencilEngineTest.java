@@ -0,0 +1,145 @@
+package edu.coursera.parallel;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+public class StencilEngineTest extends TestCase {
+    /**
+     * A reference implementation of one-dimensional averaging, independent of the stencil engine.
+     */
+    private static void runSequential(final int iterations, double[] myNew, double[] myVal, final int n) {
+        for (int iter = 0; iter < iterations; iter++) {
+            for (int j = 1; j <= n; j++) {
+                myNew[j] = (myVal[j - 1] + myVal[j + 1]) / 2.0;
+            }
+            double[] tmp = myNew;
+            myNew = myVal;
+            myVal = tmp;
+        }
+    }
+
+    private void checkResult(final double[] ref, final double[] output) {
+        for (int i = 0; i < ref.length; i++) {
+            String msg = "Mismatch on output at element " + i;
+            assertEquals(msg, ref[i], output[i]);
+        }
+    }
+
+    /**
+     * Test that the stencil engine reproduces one-dimensional averaging exactly with the 2-point Jacobi stencil,
+     * sequentially and with the fuzzy barrier.
+     */
+    public void testStencilEngine1D() {
+        final Random rand = new Random(29);
+        final Stencil jacobi = Stencil.jacobi(1);
+        final int[][] configs = {
+            // n, iterations, tasks
+            {1000, 100, 4},
+            {1003, 101, 5},
+            {7, 9, 10},
+        };
+        for (int[] config : configs) {
+            final int n = config[0];
+            final int iterations = config[1];
+            assertEquals(n + 2, StencilEngine.getGridLength(jacobi, n));
+            final double[] myNew = new double[n + 2];
+            final double[] myVal = new double[n + 2];
+            for (int j = 0; j < n + 2; j++) {
+                myNew[j] = rand.nextDouble();
+                myVal[j] = rand.nextDouble();
+            }
+            final double[] myNewRef = myNew.clone();
+            final double[] myValRef = myVal.clone();
+            final double[] myNewSeq = myNew.clone();
+            final double[] myValSeq = myVal.clone();
+
+            runSequential(iterations, myNewRef, myValRef, n);
+            StencilEngine.runSequential(jacobi, iterations, myNewSeq, myValSeq, n);
+            StencilEngine.runParallelFuzzyBarrier(jacobi, iterations, myNew, myVal, config[2], n);
+
+            checkResult(myNewRef, myNewSeq);
+            checkResult(myValRef, myValSeq);
+            checkResult(myNewRef, myNew);
+            checkResult(myValRef, myVal);
+        }
+    }
+
+    /**
+     * Test the stencil engine on two- and three-dimensional grids: the 5-point Jacobi stencil against a direct
+     * implementation, and the fuzzy barrier against the sequential engine for the 5-point, 7-point and a radius 2
+     * stencil, with slabs that do not divide the grid and more tasks than slabs.
+     */
+    public void testStencilEngineMultiDim() {
+        final Random rand = new Random(31);
+
+        final int rows = 37;
+        final int cols = 23;
+        final int iterations = 15;
+        final Stencil fivePoint = Stencil.jacobi(2);
+        final int length = StencilEngine.getGridLength(fivePoint, rows, cols);
+        assertEquals((rows + 2) * (cols + 2), length);
+        final double[] myNew = new double[length];
+        final double[] myVal = new double[length];
+        for (int j = 0; j < length; j++) {
+            myNew[j] = rand.nextDouble();
+            myVal[j] = rand.nextDouble();
+        }
+        final double[] myNewRef = myNew.clone();
+        final double[] myValRef = myVal.clone();
+        double[] next = myNewRef;
+        double[] curr = myValRef;
+        for (int iter = 0; iter < iterations; iter++) {
+            for (int i = 1; i <= rows; i++) {
+                for (int j = 1; j <= cols; j++) {
+                    final int c = i * (cols + 2) + j;
+                    next[c] = 0.25 * curr[c - cols - 2] + 0.25 * curr[c + cols + 2]
+                        + 0.25 * curr[c - 1] + 0.25 * curr[c + 1];
+                }
+            }
+            double[] tmp = next;
+            next = curr;
+            curr = tmp;
+        }
+        StencilEngine.runParallelFuzzyBarrier(fivePoint, iterations, myNew, myVal, 4, rows, cols);
+        for (int j = 0; j < length; j++) {
+            assertEquals("Mismatch on output at element " + j, myNewRef[j], myNew[j], 1e-12);
+            assertEquals("Mismatch on output at element " + j, myValRef[j], myVal[j], 1e-12);
+        }
+
+        final Stencil wide = new Stencil(
+                new int[][] {{0, 0}, {-2, 0}, {2, 0}, {0, -1}, {0, 1}, {-1, 1}},
+                new double[] {0.3, 0.1, 0.2, 0.15, 0.15, 0.1});
+        assertEquals(2, wide.getRadius());
+        assertEquals(StencilEngine.getIndex(wide, new int[] {rows, cols}, 3, 4),
+                3 * (cols + 4) + 4);
+
+        final Object[][] configs = {
+            // stencil, dims, tasks
+            {fivePoint, new int[] {rows, cols}, 5},
+            {wide, new int[] {rows, cols}, 6},
+            {wide, new int[] {5, cols}, 8},
+            {Stencil.jacobi(3), new int[] {17, 9, 11}, 4},
+            {Stencil.jacobi(3), new int[] {3, 4, 5}, 8},
+        };
+        for (Object[] config : configs) {
+            final Stencil stencil = (Stencil) config[0];
+            final int[] dims = (int[]) config[1];
+            final int n = StencilEngine.getGridLength(stencil, dims);
+            final double[] parNew = new double[n];
+            final double[] parVal = new double[n];
+            for (int j = 0; j < n; j++) {
+                parNew[j] = rand.nextDouble();
+                parVal[j] = rand.nextDouble();
+            }
+            final double[] seqNew = parNew.clone();
+            final double[] seqVal = parVal.clone();
+
+            StencilEngine.runSequential(stencil, iterations, seqNew, seqVal, dims);
+            StencilEngine.runParallelFuzzyBarrier(stencil, iterations, parNew, parVal, (Integer) config[2], dims);
+
+            checkResult(seqNew, parNew);
+            checkResult(seqVal, parVal);
+        }
+    }
+}